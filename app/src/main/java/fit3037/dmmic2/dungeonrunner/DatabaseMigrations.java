@@ -0,0 +1,322 @@
+package fit3037.dmmic2.dungeonrunner;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+
+/*
+* Moves an existing database forward to DatabaseHelper.DATABASE_VERSION without losing anything the
+* user already has (their inventory and dungeon journal).  Migrations come in two kinds:
+*
+* Schema steps:         One per database version, applied in order by DatabaseHelper.onUpgrade
+*                       inside its upgrade transaction.  These must stay cheap (CREATE, ALTER,
+*                       CREATE INDEX...) because they run while the database is being opened.
+*
+* Data migrations:      Rewrites of existing rows, which could take a while on a long journal.  A
+*                       schema step only registers one in the migrations table; it is then worked
+*                       through on a background thread in batches of BATCH_SIZE rows, each batch in
+*                       its own short transaction so other writers are never held up for long.  The
+*                       last _id done is saved with every batch, so a migration that gets
+*                       interrupted simply carries on from there the next time the app starts.
+*
+* Since a data migration can still be part way through while the app is in use, anything reading
+* a migrated table has to cope with rows that have not been reached yet, and migrateRow has to be
+* safe to run on a row that is already in the new form.
+*
+* To add a migration: bump DATABASE_VERSION, add a case for it to applySchemaStep, and if existing
+* rows need rewriting add a DataMigration to DATA_MIGRATIONS and register it from that case.
+* */
+
+public class DatabaseMigrations {
+
+    // Database Constants
+    public static final String TABLE_NAME = "migrations";
+    public static final String COLUMN_NAME = "name";
+    public static final String COLUMN_LAST_ID = "lastId";
+    public static final String COLUMN_DONE = "done";
+
+    // Table create statement
+    public static final String CREATE_STATEMENT = "CREATE TABLE IF NOT EXISTS "
+            + TABLE_NAME + "(" +
+            COLUMN_NAME + " TEXT PRIMARY KEY NOT NULL, " +
+            COLUMN_LAST_ID + " INTEGER NOT NULL, " +
+            COLUMN_DONE + " INTEGER NOT NULL" +
+            ")";
+
+    // Every table being migrated has one of these, and batches are taken in its order
+    private static final String COLUMN_ROW_ID = "_id";
+
+    // Rows rewritten per transaction, and the pause between transactions that lets the rest of
+    // the app get at the database
+    static final int BATCH_SIZE = 100;
+    private static final long BATCH_PAUSE_MS = 20;
+
+    // A rewrite of every existing row of one table, done a batch at a time in _id order
+    public abstract static class DataMigration {
+        private final String mName;
+        private final String mTable;
+        private final String[] mColumns;
+
+        public DataMigration(String name, String table, String[] columns) {
+            mName = name;
+            mTable = table;
+            mColumns = columns;
+        }
+
+        public String getName() { return mName; }
+
+        // Rewrite a single row.  The cursor is positioned on it, with _id in column 0 followed by
+        // the columns asked for in the constructor, and a transaction is already open.
+        public abstract void migrateRow(SQLiteDatabase db, Cursor cursor);
+    }
+
+    // Version 4: move the coordinates and skips of every dungeon record from text into the track
+    // column, emptying the text columns as it goes
+    static final String MIGRATION_DUNGEON_RECORD_TRACKS = "dungeonRecordTracks";
+    static final DataMigration DUNGEON_RECORD_TRACKS = new DataMigration(
+            MIGRATION_DUNGEON_RECORD_TRACKS, DungeonRecord.TABLE_NAME, new String[]{
+                    DungeonRecord.COLUMN_COORDS,
+                    DungeonRecord.COLUMN_SKIPS,
+                    DungeonRecord.COLUMN_TRACK}) {
+        @Override
+        public void migrateRow(SQLiteDatabase db, Cursor cursor) {
+            if (!cursor.isNull(3)) {
+                return;
+            }
+            ContentValues values = new ContentValues();
+            values.put(DungeonRecord.COLUMN_TRACK,
+                    DungeonRecord.convertLegacyTextToTrack(cursor.getString(1), cursor.getString(2)));
+            values.put(DungeonRecord.COLUMN_COORDS, "");
+            values.put(DungeonRecord.COLUMN_SKIPS, "");
+            db.update(DungeonRecord.TABLE_NAME, values, DungeonRecord.COLUMN_ID + "=?",
+                    new String[]{String.valueOf(cursor.getLong(0))});
+        }
+    };
+
+    // Version 5: work out the simplified copies of the track of every dungeon record (see
+    // TrackDetailLevels)
+    static final String MIGRATION_DUNGEON_RECORD_DETAIL_LEVELS = "dungeonRecordDetailLevels";
+    static final DataMigration DUNGEON_RECORD_DETAIL_LEVELS = new DataMigration(
+            MIGRATION_DUNGEON_RECORD_DETAIL_LEVELS, DungeonRecord.TABLE_NAME, new String[]{
+                    DungeonRecord.COLUMN_COORDS,
+                    DungeonRecord.COLUMN_SKIPS,
+                    DungeonRecord.COLUMN_TRACK,
+                    DungeonRecord.COLUMN_DETAIL_LEVELS}) {
+        @Override
+        public void migrateRow(SQLiteDatabase db, Cursor cursor) {
+            if (!cursor.isNull(4)) {
+                return;
+            }
+            // the track may still be in the old text columns if its own migration hasn't got
+            // this far yet
+            byte[] track = cursor.isNull(3)
+                    ? DungeonRecord.convertLegacyTextToTrack(cursor.getString(1),
+                            cursor.getString(2))
+                    : cursor.getBlob(3);
+            ContentValues values = new ContentValues();
+            values.put(DungeonRecord.COLUMN_DETAIL_LEVELS,
+                    TrackDetailLevels.encode(TrackBuffer.decode(track)));
+            db.update(DungeonRecord.TABLE_NAME, values, DungeonRecord.COLUMN_ID + "=?",
+                    new String[]{String.valueOf(cursor.getLong(0))});
+        }
+    };
+
+    // Version 6: work out where the track of every dungeon record is (see TrackBounds)
+    static final String MIGRATION_DUNGEON_RECORD_BOUNDS = "dungeonRecordBounds";
+    static final DataMigration DUNGEON_RECORD_BOUNDS = new DataMigration(
+            MIGRATION_DUNGEON_RECORD_BOUNDS, DungeonRecord.TABLE_NAME, new String[]{
+                    DungeonRecord.COLUMN_COORDS,
+                    DungeonRecord.COLUMN_SKIPS,
+                    DungeonRecord.COLUMN_TRACK,
+                    DungeonRecord.COLUMN_SOUTH}) {
+        @Override
+        public void migrateRow(SQLiteDatabase db, Cursor cursor) {
+            if (!cursor.isNull(4)) {
+                return;
+            }
+            byte[] track = cursor.isNull(3)
+                    ? DungeonRecord.convertLegacyTextToTrack(cursor.getString(1),
+                            cursor.getString(2))
+                    : cursor.getBlob(3);
+            TrackBounds bounds = TrackBuffer.decode(track).getBounds();
+            if (bounds == null) {
+                return;
+            }
+            ContentValues values = new ContentValues();
+            DatabaseHelper.putBounds(values, bounds);
+            db.update(DungeonRecord.TABLE_NAME, values, DungeonRecord.COLUMN_ID + "=?",
+                    new String[]{String.valueOf(cursor.getLong(0))});
+        }
+    };
+
+    // Every data migration this build knows how to run, looked up by name from the migrations table
+    private static final DataMigration[] DATA_MIGRATIONS = {
+            DUNGEON_RECORD_TRACKS,
+            DUNGEON_RECORD_DETAIL_LEVELS,
+            DUNGEON_RECORD_BOUNDS
+    };
+
+    private static Thread sRunner;
+
+    // SCHEMA STEPS---------------------------------------------------------------------------------
+
+    // Bring the schema from (version - 1) up to version
+    static void applySchemaStep(SQLiteDatabase db, int version) {
+        Log.d("MIGRATIONS", "applying schema step for version " + version);
+        switch (version) {
+            case 2:
+                // indexes for the equipment and item descriptor lookups
+                db.execSQL(Equipment.CREATE_INDEX_STATEMENT);
+                db.execSQL(ItemDescriptor.CREATE_INDEX_STATEMENT);
+                break;
+            case 3:
+                // somewhere to keep track of data migrations
+                db.execSQL(CREATE_STATEMENT);
+                break;
+            case 4:
+                // binary tracks for dungeon records, existing rows are converted in the background
+                db.execSQL(DungeonRecord.ADD_TRACK_STATEMENT);
+                registerDataMigration(db, MIGRATION_DUNGEON_RECORD_TRACKS);
+                break;
+            case 5:
+                // simplified tracks for the map, worked out for existing rows in the background
+                db.execSQL(DungeonRecord.ADD_DETAIL_LEVELS_STATEMENT);
+                registerDataMigration(db, MIGRATION_DUNGEON_RECORD_DETAIL_LEVELS);
+                break;
+            case 6:
+                // where each track is, worked out for existing rows in the background
+                for (String statement : DungeonRecord.ADD_BOUNDS_STATEMENTS) {
+                    db.execSQL(statement);
+                }
+                registerDataMigration(db, MIGRATION_DUNGEON_RECORD_BOUNDS);
+                break;
+            default:
+                throw new IllegalStateException("no schema step for database version " + version);
+        }
+    }
+
+    // Queue a data migration to be run in the background.  Registering one that is already known
+    // leaves its progress alone.
+    static void registerDataMigration(SQLiteDatabase db, String name) {
+        ContentValues values = new ContentValues();
+        values.put(COLUMN_NAME, name);
+        values.put(COLUMN_LAST_ID, 0);
+        values.put(COLUMN_DONE, 0);
+        db.insertWithOnConflict(TABLE_NAME, null, values, SQLiteDatabase.CONFLICT_IGNORE);
+    }
+
+    // DATA MIGRATIONS------------------------------------------------------------------------------
+
+    // Start working through any outstanding data migrations on a background thread, unless that
+    // is already happening
+    public static synchronized void runPendingInBackground(Context context) {
+        if (sRunner != null && sRunner.isAlive()) {
+            return;
+        }
+        final DatabaseHelper dbHelper = DatabaseHelper.getInstance(context);
+        sRunner = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                runPending(dbHelper);
+            }
+        }, "DatabaseMigrations");
+        sRunner.setPriority(Thread.MIN_PRIORITY);
+        sRunner.start();
+    }
+
+    static void runPending(DatabaseHelper dbHelper) {
+        SQLiteDatabase db = dbHelper.openDatabase();
+        try {
+            Cursor cursor = db.rawQuery("SELECT " + COLUMN_NAME + ", " + COLUMN_LAST_ID +
+                    " FROM " + TABLE_NAME + " WHERE " + COLUMN_DONE + "=0", null);
+            String[] names = new String[cursor.getCount()];
+            long[] lastIds = new long[cursor.getCount()];
+            int i = 0;
+            while (cursor.moveToNext()) {
+                names[i] = cursor.getString(0);
+                lastIds[i] = cursor.getLong(1);
+                i += 1;
+            }
+            cursor.close();
+
+            for (i = 0; i < names.length; i++) {
+                DataMigration migration = findDataMigration(names[i]);
+                if (migration == null) {
+                    Log.d("MIGRATIONS", "don't know how to run data migration " + names[i]);
+                    continue;
+                }
+                run(db, migration, lastIds[i]);
+            }
+        } catch (InterruptedException e) {
+            Log.d("MIGRATIONS", "interrupted, will carry on next launch");
+        } finally {
+            dbHelper.closeDatabase();
+        }
+    }
+
+    private static DataMigration findDataMigration(String name) {
+        for (DataMigration migration : DATA_MIGRATIONS) {
+            if (migration.getName().equals(name)) {
+                return migration;
+            }
+        }
+        return null;
+    }
+
+    // Run one migration to completion, starting after lastId
+    private static void run(SQLiteDatabase db, DataMigration migration, long lastId)
+            throws InterruptedException {
+        long start = StartupTiming.now();
+        String query = buildBatchQuery(migration);
+        int total = 0;
+
+        while (true) {
+            int done = 0;
+            db.beginTransaction();
+            try {
+                Cursor cursor = db.rawQuery(query, new String[]{
+                        String.valueOf(lastId), String.valueOf(BATCH_SIZE)});
+                while (cursor.moveToNext()) {
+                    migration.migrateRow(db, cursor);
+                    lastId = cursor.getLong(0);
+                    done += 1;
+                }
+                cursor.close();
+                saveProgress(db, migration.getName(), lastId, done < BATCH_SIZE);
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+
+            total += done;
+            if (done < BATCH_SIZE) {
+                break;
+            }
+            Thread.sleep(BATCH_PAUSE_MS);
+        }
+        StartupTiming.report("data migration " + migration.getName() + " of " + total + " rows",
+                start);
+    }
+
+    // Keyset paging on _id, so every batch is an index lookup however far through the table we are
+    static String buildBatchQuery(DataMigration migration) {
+        StringBuilder query = new StringBuilder("SELECT " + COLUMN_ROW_ID);
+        for (String column : migration.mColumns) {
+            query.append(", ").append(column);
+        }
+        query.append(" FROM ").append(migration.mTable)
+                .append(" WHERE ").append(COLUMN_ROW_ID).append(" > ?")
+                .append(" ORDER BY ").append(COLUMN_ROW_ID)
+                .append(" LIMIT ?");
+        return query.toString();
+    }
+
+    private static void saveProgress(SQLiteDatabase db, String name, long lastId, boolean finished) {
+        ContentValues values = new ContentValues();
+        values.put(COLUMN_LAST_ID, lastId);
+        values.put(COLUMN_DONE, finished ? 1 : 0);
+        db.update(TABLE_NAME, values, COLUMN_NAME + "=?", new String[]{name});
+    }
+}
@@ -0,0 +1,231 @@
+package fit3037.dmmic2.dungeonrunner;
+
+/*
+* Works out the distance along a run, one point at a time.  Each point is given to next, which
+* returns the distance from the point before it.  Since every point is the end of one pair and the
+* start of the next, whatever trig a mode needs for a single point is worked out once when the
+* point comes in and kept for the next pair, rather than twice per point.
+*
+* Three modes, in order of cost:
+*
+* MODE_EQUIRECTANGULAR: Treats the few metres between two fixes as flat, scaled by the curvature of
+*                       the WGS-84 ellipsoid at that latitude.  One cos and one sqrt per point, one
+*                       sqrt per pair.  Over the spacing of GPS fixes this is within a few parts per
+*                       million of Vincenty.
+* MODE_HAVERSINE:       Great circle distance on a sphere of the earth's mean radius.  Exact for the
+*                       sphere, but the earth isn't one, so it is out by up to about 0.5% depending
+*                       on latitude and direction.
+* MODE_VINCENTY:        Vincenty's inverse formula on the WGS-84 ellipsoid, accurate to well under a
+*                       millimetre.  Iterative and by far the slowest, so mostly useful as the
+*                       reference the others are measured against.
+*
+* DistanceEngineTest compares all three on a marathon of fixes.  The equirectangular mode is both
+* the cheapest and close enough to Vincenty for any dungeon, so it is DEFAULT_MODE.
+*
+* The altitude difference, if any, is added Pythagoras style, as the tracker always has.  An engine
+* keeps state between points, so each sequence of points needs its own.
+* */
+
+public abstract class DistanceEngine {
+
+    public static final int MODE_EQUIRECTANGULAR = 0;
+    public static final int MODE_HAVERSINE = 1;
+    public static final int MODE_VINCENTY = 2;
+
+    public static final int DEFAULT_MODE = MODE_EQUIRECTANGULAR;
+
+    // WGS-84 ellipsoid
+    private static final double SEMI_MAJOR_AXIS = 6378137.0;
+    private static final double FLATTENING = 1 / 298.257223563;
+    private static final double SEMI_MINOR_AXIS = SEMI_MAJOR_AXIS * (1 - FLATTENING);
+    private static final double ECCENTRICITY_SQUARED = FLATTENING * (2 - FLATTENING);
+    // Mean radius, for the spherical haversine
+    private static final double MEAN_RADIUS = 6371000;
+
+    private boolean mHasPrevious = false;
+    private double mPreviousAltitude;
+
+    public static DistanceEngine create(int mode) {
+        switch (mode) {
+            case MODE_EQUIRECTANGULAR:
+                return new Equirectangular();
+            case MODE_HAVERSINE:
+                return new Haversine();
+            case MODE_VINCENTY:
+                return new Vincenty();
+            default:
+                throw new IllegalArgumentException("no distance mode " + mode);
+        }
+    }
+
+    public static DistanceEngine create() {
+        return create(DEFAULT_MODE);
+    }
+
+    // Distance (m) from the previous point to this one, or 0 for the first point
+    public final double next(double latitude, double longitude, double altitude) {
+        double surface = surface(Math.toRadians(latitude), Math.toRadians(longitude), mHasPrevious);
+        double distance = 0;
+        if (mHasPrevious) {
+            double climb = altitude - mPreviousAltitude;
+            distance = Math.sqrt(surface * surface + climb * climb);
+        }
+        mHasPrevious = true;
+        mPreviousAltitude = altitude;
+        return distance;
+    }
+
+    // Forget the previous point, so the next one starts afresh
+    public void reset() {
+        mHasPrevious = false;
+    }
+
+    // Distance (m) over the surface from the previous point to this one (in radians), if there is
+    // a previous point, and then remember this one as the previous point
+    abstract double surface(double latitude, double longitude, boolean hasPrevious);
+
+    // Longitude difference taken the short way round, in case a run crosses the 180th meridian
+    static double longitudeDifference(double from, double to) {
+        double difference = to - from;
+        if (difference > Math.PI) {
+            difference -= 2 * Math.PI;
+        } else if (difference < -Math.PI) {
+            difference += 2 * Math.PI;
+        }
+        return difference;
+    }
+
+    // MODES----------------------------------------------------------------------------------------
+
+    // Per point: the radii of curvature of the ellipsoid north-south (meridian) and east-west
+    // (times cos latitude, i.e. metres per radian of longitude).  Per pair: the mean of the two
+    // points' radii across the difference in latitude and longitude.
+    private static class Equirectangular extends DistanceEngine {
+        private double mLatitude;
+        private double mLongitude;
+        private double mMeridianRadius;
+        private double mParallelRadius;
+
+        @Override
+        double surface(double latitude, double longitude, boolean hasPrevious) {
+            double cos = Math.cos(latitude);
+            double w = Math.sqrt(1 - ECCENTRICITY_SQUARED * (1 - cos * cos));
+            double primeVerticalRadius = SEMI_MAJOR_AXIS / w;
+            double meridianRadius = primeVerticalRadius * (1 - ECCENTRICITY_SQUARED) / (w * w);
+            double parallelRadius = primeVerticalRadius * cos;
+
+            double distance = 0;
+            if (hasPrevious) {
+                double north = (latitude - mLatitude) * (meridianRadius + mMeridianRadius) / 2;
+                double east = longitudeDifference(mLongitude, longitude)
+                        * (parallelRadius + mParallelRadius) / 2;
+                distance = Math.sqrt(north * north + east * east);
+            }
+            mLatitude = latitude;
+            mLongitude = longitude;
+            mMeridianRadius = meridianRadius;
+            mParallelRadius = parallelRadius;
+            return distance;
+        }
+    }
+
+    // This way of getting the distance between two lat long coordinates is known as the Haversine
+    // Method, taken from:
+    // https://stackoverflow.com/questions/3694380/calculating-distance-between-two-points-using-latitude-longitude-what-am-i-doi
+    // Per point: cos latitude.
+    private static class Haversine extends DistanceEngine {
+        private double mLatitude;
+        private double mLongitude;
+        private double mCosLatitude;
+
+        @Override
+        double surface(double latitude, double longitude, boolean hasPrevious) {
+            double cosLatitude = Math.cos(latitude);
+
+            double distance = 0;
+            if (hasPrevious) {
+                double sinHalfLatitude = Math.sin((latitude - mLatitude) / 2);
+                double sinHalfLongitude = Math.sin(longitudeDifference(mLongitude, longitude) / 2);
+                double a = sinHalfLatitude * sinHalfLatitude
+                        + mCosLatitude * cosLatitude * sinHalfLongitude * sinHalfLongitude;
+                distance = MEAN_RADIUS * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+            }
+            mLatitude = latitude;
+            mLongitude = longitude;
+            mCosLatitude = cosLatitude;
+            return distance;
+        }
+    }
+
+    // Vincenty's inverse formula, as set out in:
+    // https://www.movable-type.co.uk/scripts/latlong-vincenty.html
+    // Per point: sin and cos of the reduced latitude.
+    private static class Vincenty extends DistanceEngine {
+        private static final int MAX_ITERATIONS = 100;
+        private static final double CONVERGED = 1e-12;
+
+        private double mLongitude;
+        private double mSinU;
+        private double mCosU;
+
+        @Override
+        double surface(double latitude, double longitude, boolean hasPrevious) {
+            double tanU = (1 - FLATTENING) * Math.tan(latitude);
+            double cosU = 1 / Math.sqrt(1 + tanU * tanU);
+            double sinU = tanU * cosU;
+
+            double distance = 0;
+            if (hasPrevious) {
+                distance = inverse(mSinU, mCosU, sinU, cosU,
+                        longitudeDifference(mLongitude, longitude));
+            }
+            mLongitude = longitude;
+            mSinU = sinU;
+            mCosU = cosU;
+            return distance;
+        }
+
+        private static double inverse(double sinU1, double cosU1, double sinU2, double cosU2,
+                double l) {
+            double lambda = l;
+            double sinSigma = 0;
+            double cosSigma = 1;
+            double sigma = 0;
+            double cosSqAlpha = 1;
+            double cos2SigmaM = 0;
+            for (int i = 0; i < MAX_ITERATIONS; i++) {
+                double sinLambda = Math.sin(lambda);
+                double cosLambda = Math.cos(lambda);
+                double a = cosU2 * sinLambda;
+                double b = cosU1 * sinU2 - sinU1 * cosU2 * cosLambda;
+                sinSigma = Math.sqrt(a * a + b * b);
+                if (sinSigma == 0) {
+                    // the same point
+                    return 0;
+                }
+                cosSigma = sinU1 * sinU2 + cosU1 * cosU2 * cosLambda;
+                sigma = Math.atan2(sinSigma, cosSigma);
+                double sinAlpha = cosU1 * cosU2 * sinLambda / sinSigma;
+                cosSqAlpha = 1 - sinAlpha * sinAlpha;
+                // on the equator cosSqAlpha is 0 and so is cos2SigmaM
+                cos2SigmaM = (cosSqAlpha == 0) ? 0 : cosSigma - 2 * sinU1 * sinU2 / cosSqAlpha;
+                double c = FLATTENING / 16 * cosSqAlpha * (4 + FLATTENING * (4 - 3 * cosSqAlpha));
+                double previousLambda = lambda;
+                lambda = l + (1 - c) * FLATTENING * sinAlpha * (sigma + c * sinSigma
+                        * (cos2SigmaM + c * cosSigma * (-1 + 2 * cos2SigmaM * cos2SigmaM)));
+                if (Math.abs(lambda - previousLambda) < CONVERGED) {
+                    break;
+                }
+            }
+
+            double uSq = cosSqAlpha * (SEMI_MAJOR_AXIS * SEMI_MAJOR_AXIS
+                    - SEMI_MINOR_AXIS * SEMI_MINOR_AXIS) / (SEMI_MINOR_AXIS * SEMI_MINOR_AXIS);
+            double a = 1 + uSq / 16384 * (4096 + uSq * (-768 + uSq * (320 - 175 * uSq)));
+            double b = uSq / 1024 * (256 + uSq * (-128 + uSq * (74 - 47 * uSq)));
+            double deltaSigma = b * sinSigma * (cos2SigmaM + b / 4 * (cosSigma
+                    * (-1 + 2 * cos2SigmaM * cos2SigmaM) - b / 6 * cos2SigmaM
+                    * (-3 + 4 * sinSigma * sinSigma) * (-3 + 4 * cos2SigmaM * cos2SigmaM)));
+            return SEMI_MINOR_AXIS * a * (sigma - deltaSigma);
+        }
+    }
+}
@@ -21,7 +21,7 @@ public class DressingRoom extends AppCompatActivity implements AdapterView.OnIte
     private ListView mListView;
     private EquipmentAdapter mAdapter;
     private ArrayList<Equipment> mEquippedList;
-    private DatabaseHelper mDBHelper;
+    private DungeonRepository mRepository;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -33,10 +33,10 @@ public class DressingRoom extends AppCompatActivity implements AdapterView.OnIte
         getSupportActionBar().setTitle("Dressing Room");
 
         // Get the database handler
-        mDBHelper = new DatabaseHelper(getApplicationContext());
+        mRepository = DungeonRepository.getInstance(getApplicationContext());
 
-        // initialise the equipped equipment list
-        mEquippedList = new ArrayList<>(mDBHelper.getAllEquippedEquipment());
+        // initialise the equipped equipment list, it is filled in by onResume
+        mEquippedList = new ArrayList<>();
         mListView = (ListView) findViewById(R.id.equippedListView);
 
         // create adapter and associate it with equipped list
@@ -51,13 +51,16 @@ public class DressingRoom extends AppCompatActivity implements AdapterView.OnIte
     @Override
     public void onResume() {  // After a pause OR at startup
         super.onResume();
-        mEquippedList = new ArrayList<>(mDBHelper.getAllEquippedEquipment());  // possible type in lab notes... they writes GetAllBooks (capital G?)
-        mListView = (ListView) findViewById(R.id.equippedListView);
-
-        // create adapter and associate it with book list
-        mAdapter = new EquipmentAdapter(this, mEquippedList);
-        mListView.setOnItemClickListener(this);
-        mListView.setAdapter(mAdapter);
+        mRepository.getAllEquippedEquipment(new DungeonRepository.ResultCallback<ArrayList<Equipment>>() {
+            @Override
+            public void onResult(ArrayList<Equipment> equipped) {
+                mEquippedList = equipped;
+
+                // create adapter and associate it with equipped list
+                mAdapter = new EquipmentAdapter(DressingRoom.this, mEquippedList);
+                mListView.setAdapter(mAdapter);
+            }
+        });
     }
 
 
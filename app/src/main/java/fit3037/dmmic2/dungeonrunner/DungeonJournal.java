@@ -7,21 +7,23 @@ import android.os.Bundle;
 import android.support.v7.app.AppCompatActivity;
 import android.support.v7.widget.Toolbar;
 import android.view.View;
+import android.widget.AbsListView;
 import android.widget.AdapterView;
 import android.widget.ListView;
 
-import java.util.ArrayList;
-
 /*
 * This activity displays all the dungeons the user has run before, showing all the basic details
 * in an easy format to understand.
 * */
 
-public class DungeonJournal extends AppCompatActivity implements AdapterView.OnItemClickListener, AdapterView.OnItemLongClickListener {
+public class DungeonJournal extends AppCompatActivity implements AdapterView.OnItemClickListener, AdapterView.OnItemLongClickListener, AbsListView.OnScrollListener, DungeonJournalPager.OnPagesChangedListener {
+    // How close to the bottom of what is loaded the list can get before the next page is fetched
+    private static final int LOAD_AHEAD = 10;
+
     private ListView mListView;
     private DungeonRecordAdapter mAdapter;
-    private ArrayList<DungeonRecord> mRecords;
-    private DatabaseHelper mDBHelper;
+    private DungeonJournalPager mPager;
+    private DungeonRepository mRepository;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -33,15 +35,17 @@ public class DungeonJournal extends AppCompatActivity implements AdapterView.OnI
         getSupportActionBar().setTitle("Dungeon Journal");
 
         // Get the database handler
-        mDBHelper = new DatabaseHelper(getApplicationContext());
+        mRepository = DungeonRepository.getInstance(getApplicationContext());
 
-        // initialise the list of dungeon records
-        mRecords = new ArrayList<>(mDBHelper.getAllDungeonRecords());
+        // initialise the list of dungeon records, only the first page is loaded to begin with
+        mPager = new DungeonJournalPager(mRepository, this);
+        mPager.loadNextPage();
         mListView = (ListView) findViewById(R.id.journalListView);
 
         // create adapter and associate it with equipped list
-        mAdapter = new DungeonRecordAdapter(this, mRecords);
+        mAdapter = new DungeonRecordAdapter(this, mPager);
         mListView.setAdapter(mAdapter);
+        mListView.setOnScrollListener(this);
         // set on clicks, long for deletion, regular for detailed view
         mListView.setOnItemLongClickListener(this);
         mListView.setOnItemClickListener(this);
@@ -49,12 +53,35 @@ public class DungeonJournal extends AppCompatActivity implements AdapterView.OnI
     }
 
 
+    @Override
+    public void onScrollStateChanged(AbsListView absListView, int scrollState) {
+        // nothing to do, loading is driven by onScroll
+    }
+
+    @Override
+    public void onScroll(AbsListView absListView, int firstVisible, int visibleCount, int totalCount) {
+        // load the next page of records as the user nears the end of those already loaded
+        if (!mPager.isEndReached() && firstVisible + visibleCount >= totalCount - LOAD_AHEAD) {
+            mPager.loadNextPage();
+        }
+    }
+
+    @Override
+    public void onPagesChanged() {
+        mAdapter.notifyDataSetChanged();
+    }
+
     // click allows viewing of specific equipment type
     @Override
     public void onItemClick(AdapterView<?> adapterView, View view, final int position, long l) {
         Intent newIntent = new Intent(DungeonJournal.this, DungeonRecordMapDetails.class);
-        DungeonRecord record = (DungeonRecord) adapterView.getItemAtPosition(position);
-        newIntent.putExtra("record", record);
+        // only the id is passed on, the track is loaded once the record is opened
+        DungeonRecordSummary record = (DungeonRecordSummary) adapterView.getItemAtPosition(position);
+        if (record == null) {
+            // its page is still loading
+            return;
+        }
+        newIntent.putExtra("recordId", record.getId());
         startActivity(newIntent);
     }
 
@@ -67,10 +94,18 @@ public class DungeonJournal extends AppCompatActivity implements AdapterView.OnI
         builder.setMessage("Do you want to delete this dungeon record?\nThis action is final!");
         builder.setPositiveButton("Yes", new DialogInterface.OnClickListener() {
             public void onClick(DialogInterface dialog, int id) {
-                mDBHelper.removeDungeonRecord((DungeonRecord) adapterView.getItemAtPosition((int) l));
-                // Refresh the current activity to display the equipment that is equipped
-                finish();
-                startActivity(getIntent());
+                DungeonRecordSummary record = (DungeonRecordSummary) adapterView.getItemAtPosition((int) l);
+                if (record == null) {
+                    return;
+                }
+                mRepository.removeDungeonRecord(record.getId(), new DungeonRepository.ResultCallback<Void>() {
+                    @Override
+                    public void onResult(Void result) {
+                        // Refresh the current activity to display the records that are left
+                        finish();
+                        startActivity(getIntent());
+                    }
+                });
             }
         });
         builder.setNegativeButton("No", null);
@@ -0,0 +1,105 @@
+package fit3037.dmmic2.dungeonrunner;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+* Pages through the dungeon records for the Dungeon Journal, newest first, so the journal never has
+* to load every record a user has ever run.
+*
+* Records are fetched PAGE_SIZE at a time by _id keyset (see
+* DatabaseHelper.getDungeonRecordSummariesBefore), so fetching a page costs the same however deep
+* into the journal it is.  Pages are only fetched as the list scrolls towards them (loadNextPage),
+* and at most MAX_PAGES_IN_MEMORY are held at once; the least recently used page is dropped when
+* another is needed.  The anchor (the _id every record on a page is below) is remembered for each
+* page, so a dropped page can be fetched again exactly if the user scrolls back up to it.
+*
+* Fetches go through DungeonRepository, so they happen in the background.  Until a dropped page
+* has come back, get returns null for its positions.  The listener is told whenever pages arrive
+* so the list can redraw.
+*
+* Page boundaries are fixed when the pages are first loaded, so after deleting a record the pager
+* should be thrown away and a new one made (as DungeonJournal does).
+* */
+
+public class DungeonJournalPager {
+
+    public static final int PAGE_SIZE = 50;
+    public static final int MAX_PAGES_IN_MEMORY = 6;
+
+    public interface OnPagesChangedListener {
+        void onPagesChanged();
+    }
+
+    private DungeonRepository mRepository;
+    private OnPagesChangedListener mListener;
+
+    // mAnchors.get(k) is the _id that every record on page k (and after) is below
+    private ArrayList<Long> mAnchors = new ArrayList<Long>();
+    private LinkedHashMap<Integer, ArrayList<DungeonRecordSummary>> mPages =
+            new LinkedHashMap<Integer, ArrayList<DungeonRecordSummary>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(
+                        Map.Entry<Integer, ArrayList<DungeonRecordSummary>> eldest) {
+                    return size() > MAX_PAGES_IN_MEMORY;
+                }
+            };
+    // Pages currently being fetched, so each is only asked for once
+    private HashSet<Integer> mFetching = new HashSet<Integer>();
+    private int mCount = 0;
+    private boolean mEndReached = false;
+
+    public DungeonJournalPager(DungeonRepository repository, OnPagesChangedListener listener) {
+        mRepository = repository;
+        mListener = listener;
+        mAnchors.add(Long.MAX_VALUE);
+    }
+
+    // Getter Methods
+    public int getCount() { return mCount; }
+    public boolean isEndReached() { return mEndReached; }
+
+    // The record at position, or null if its page has been dropped and is being fetched again
+    public DungeonRecordSummary get(int position) {
+        int page = position / PAGE_SIZE;
+        ArrayList<DungeonRecordSummary> records = mPages.get(page);
+        if (records == null) {
+            fetchPage(page, false);
+            return null;
+        }
+        return records.get(position % PAGE_SIZE);
+    }
+
+    // Start fetching the page after the last one loaded, unless that is already underway
+    public void loadNextPage() {
+        if (mEndReached) {
+            return;
+        }
+        fetchPage(mAnchors.size() - 1, true);
+    }
+
+    private void fetchPage(final int page, final boolean isNext) {
+        if (!mFetching.add(page)) {
+            return;
+        }
+        mRepository.getDungeonRecordSummariesBefore(mAnchors.get(page), PAGE_SIZE,
+                new DungeonRepository.ResultCallback<ArrayList<DungeonRecordSummary>>() {
+                    @Override
+                    public void onResult(ArrayList<DungeonRecordSummary> records) {
+                        mFetching.remove(page);
+                        mPages.put(page, records);
+                        if (isNext) {
+                            mCount += records.size();
+                            if (records.size() < PAGE_SIZE) {
+                                mEndReached = true;
+                            } else {
+                                mAnchors.add(records.get(records.size() - 1).getId());
+                            }
+                        }
+                        mListener.onPagesChanged();
+                    }
+                });
+    }
+}
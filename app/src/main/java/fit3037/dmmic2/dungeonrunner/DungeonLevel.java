@@ -32,6 +32,16 @@ public class DungeonLevel implements Parcelable {
             COLUMN_MULTIPLIER + " REAL NOT NULL" +
             ")";
 
+    // Compiled insert used when bulk loading, bind arguments follow the column order above
+    public static final String INSERT_STATEMENT = "INSERT INTO "
+            + TABLE_NAME + "(" +
+            COLUMN_NAME + ", " +
+            COLUMN_TIME + ", " +
+            COLUMN_DISTANCE + ", " +
+            COLUMN_PACE + ", " +
+            COLUMN_MULTIPLIER +
+            ") VALUES (?, ?, ?, ?, ?)";
+
     // Attributes
     private long _id;                       // for database purposes
     private String mName;                   // name of dungeon
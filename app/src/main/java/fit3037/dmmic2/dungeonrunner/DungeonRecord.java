@@ -28,6 +28,30 @@ public class DungeonRecord implements Parcelable {
     public static final String COLUMN_REWARD = "reward";
     public static final String COLUMN_COORDS = "coordinates";
     public static final String COLUMN_SKIPS = "skips";
+    public static final String COLUMN_TRACK = "track";
+    public static final String COLUMN_DETAIL_LEVELS = "detailLevels";
+    public static final String COLUMN_SOUTH = "south";
+    public static final String COLUMN_WEST = "west";
+    public static final String COLUMN_NORTH = "north";
+    public static final String COLUMN_EAST = "east";
+    public static final String COLUMN_START_LATITUDE = "startLatitude";
+    public static final String COLUMN_START_LONGITUDE = "startLongitude";
+    public static final String COLUMN_END_LATITUDE = "endLatitude";
+    public static final String COLUMN_END_LONGITUDE = "endLongitude";
+    public static final String COLUMN_CENTROID_LATITUDE = "centroidLatitude";
+    public static final String COLUMN_CENTROID_LONGITUDE = "centroidLongitude";
+
+    // The columns holding the TrackBounds of the track, in the order of its constructor
+    public static final String[] BOUNDS_COLUMNS = {
+            COLUMN_SOUTH, COLUMN_WEST, COLUMN_NORTH, COLUMN_EAST,
+            COLUMN_START_LATITUDE, COLUMN_START_LONGITUDE,
+            COLUMN_END_LATITUDE, COLUMN_END_LONGITUDE,
+            COLUMN_CENTROID_LATITUDE, COLUMN_CENTROID_LONGITUDE};
+    public static final String BOUNDS_COLUMN_LIST =
+            COLUMN_SOUTH + ", " + COLUMN_WEST + ", " + COLUMN_NORTH + ", " + COLUMN_EAST + ", " +
+            COLUMN_START_LATITUDE + ", " + COLUMN_START_LONGITUDE + ", " +
+            COLUMN_END_LATITUDE + ", " + COLUMN_END_LONGITUDE + ", " +
+            COLUMN_CENTROID_LATITUDE + ", " + COLUMN_CENTROID_LONGITUDE;
 
 
     // Table create statement
@@ -41,9 +65,41 @@ public class DungeonRecord implements Parcelable {
             COLUMN_TIME + " INTEGER NOT NULL, " +
             COLUMN_REWARD + " TEXT NOT NULL, " +
             COLUMN_COORDS + " TEXT NOT NULL, " +
-            COLUMN_SKIPS + " TEXT NOT NULL" +
+            COLUMN_SKIPS + " TEXT NOT NULL, " +
+            COLUMN_TRACK + " BLOB, " +
+            COLUMN_DETAIL_LEVELS + " BLOB, " +
+            COLUMN_SOUTH + " REAL, " +
+            COLUMN_WEST + " REAL, " +
+            COLUMN_NORTH + " REAL, " +
+            COLUMN_EAST + " REAL, " +
+            COLUMN_START_LATITUDE + " REAL, " +
+            COLUMN_START_LONGITUDE + " REAL, " +
+            COLUMN_END_LATITUDE + " REAL, " +
+            COLUMN_END_LONGITUDE + " REAL, " +
+            COLUMN_CENTROID_LATITUDE + " REAL, " +
+            COLUMN_CENTROID_LONGITUDE + " REAL" +
             ")";
 
+    // Records written since version 4 of the database keep their coordinates and skips in the
+    // track column (see TrackCodec), leaving the old text columns empty
+    public static final String ADD_TRACK_STATEMENT = "ALTER TABLE " + TABLE_NAME +
+            " ADD COLUMN " + COLUMN_TRACK + " BLOB";
+
+    // Since version 5 records also keep simplified copies of their track for the map (see
+    // TrackDetailLevels)
+    public static final String ADD_DETAIL_LEVELS_STATEMENT = "ALTER TABLE " + TABLE_NAME +
+            " ADD COLUMN " + COLUMN_DETAIL_LEVELS + " BLOB";
+
+    // Since version 6 records also keep where their track is (see TrackBounds), one column at a
+    // time as that is all ALTER TABLE can add
+    public static final String[] ADD_BOUNDS_STATEMENTS = new String[BOUNDS_COLUMNS.length];
+    static {
+        for (int i = 0; i < BOUNDS_COLUMNS.length; i++) {
+            ADD_BOUNDS_STATEMENTS[i] = "ALTER TABLE " + TABLE_NAME +
+                    " ADD COLUMN " + BOUNDS_COLUMNS[i] + " REAL";
+        }
+    }
+
     // Attributes
     private long _id;           // for database purposes
     private String mDate;       // when the dungeon took place
@@ -54,8 +110,12 @@ public class DungeonRecord implements Parcelable {
     private int mDistance;      // length of dungeon in metres
     private int mTime;          // duration of dungeon in seconds
     private String mReward;     // basic summary of the item that was received for the dungeon.
-    private String mCoords;     // coordinates of the run
-    private String mSkips;      // indexes in coords that should not be graphed (pauses)
+    private byte[] mTrack;      // coordinates of the run, and the indexes in them that should
+                                // not be graphed (pauses), encoded by TrackCodec
+    private byte[] mDetailLevels;   // simplified copies of the track, encoded by
+                                    // TrackDetailLevels, null if not worked out yet
+    private TrackBounds mBounds;    // where the track is, null if not worked out yet or the
+                                    // track is empty
 
     // Getter Methods
     public long getId() { return _id; }
@@ -65,8 +125,10 @@ public class DungeonRecord implements Parcelable {
     public int getDistance() { return mDistance; }
     public int getTime() { return mTime; }
     public String getReward() { return mReward; }
-    public String getCoords() { return mCoords; }
-    public String getSkips() { return mSkips; }
+    public byte[] getTrack() { return mTrack; }
+    public TrackBuffer getTrackBuffer() { return TrackBuffer.decode(mTrack); }
+    public byte[] getDetailLevels() { return mDetailLevels; }
+    public TrackBounds getBounds() { return mBounds; }
 
 
     // Setter Methods
@@ -81,15 +143,24 @@ public class DungeonRecord implements Parcelable {
         mDistance = in.readInt();
         mTime = in.readInt();
         mReward = in.readString();
-        mCoords = in.readString();
-        mSkips = in.readString();
-
+        mTrack = in.createByteArray();
+        mDetailLevels = in.createByteArray();
+        if (in.readInt() != 0) {
+            mBounds = new TrackBounds(in.readDouble(), in.readDouble(), in.readDouble(),
+                    in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble(),
+                    in.readDouble(), in.readDouble(), in.readDouble());
+        }
     }
 
 
     // Constructor
     public DungeonRecord(long id, String date, String type, int outcome, int distance,
-            int time, String reward, String coords, String skips) {
+            int time, String reward, byte[] track) {
+        this(id, date, type, outcome, distance, time, reward, track, null, null);
+    }
+
+    public DungeonRecord(long id, String date, String type, int outcome, int distance,
+            int time, String reward, byte[] track, byte[] detailLevels, TrackBounds bounds) {
         this._id = id;
         this.mDate = date;
         this.mType = type;
@@ -97,8 +168,9 @@ public class DungeonRecord implements Parcelable {
         this.mDistance = distance;
         this.mTime = time;
         this.mReward = reward;
-        this.mCoords = coords;
-        this.mSkips = skips;
+        this.mTrack = track;
+        this.mDetailLevels = detailLevels;
+        this.mBounds = bounds;
     }
 
     @Override
@@ -113,8 +185,21 @@ public class DungeonRecord implements Parcelable {
         parcel.writeInt(mDistance);
         parcel.writeInt(mTime);
         parcel.writeString(mReward);
-        parcel.writeString(mCoords);
-        parcel.writeString(mSkips);
+        parcel.writeByteArray(mTrack);
+        parcel.writeByteArray(mDetailLevels);
+        parcel.writeInt(mBounds != null ? 1 : 0);
+        if (mBounds != null) {
+            parcel.writeDouble(mBounds.getSouth());
+            parcel.writeDouble(mBounds.getWest());
+            parcel.writeDouble(mBounds.getNorth());
+            parcel.writeDouble(mBounds.getEast());
+            parcel.writeDouble(mBounds.getStartLatitude());
+            parcel.writeDouble(mBounds.getStartLongitude());
+            parcel.writeDouble(mBounds.getEndLatitude());
+            parcel.writeDouble(mBounds.getEndLongitude());
+            parcel.writeDouble(mBounds.getCentroidLatitude());
+            parcel.writeDouble(mBounds.getCentroidLongitude());
+        }
     }
 
     // Creator
@@ -125,27 +210,41 @@ public class DungeonRecord implements Parcelable {
         public DungeonRecord[] newArray(int size) { return new DungeonRecord[size]; }
     };
 
-    // This function coverts an ArrayList<LatLng> to a space efficient string that can be easily
-    // stored in our database tables
+    // LEGACY TEXT FORMAT---------------------------------------------------------------------------
+    // Before the track column, coordinates and skips were stored as comma separated text, e.g.
+    //      -37.78098475,145.11339419,-37.78093189,145.1133283          and
+    //      2,5
+    // These are only still needed to read rows that DatabaseMigrations has not converted yet.
+
+    // Encode the text columns of an old row in the track format
+    public static byte[] convertLegacyTextToTrack(String stringCoords, String stringSkips) {
+        return TrackCodec.encode(convertCoordinatesStringToArrayLatLng(stringCoords),
+                convertSkipStringToArrayInteger(stringSkips));
+    }
+
+    // This function coverts an ArrayList<LatLng> to the old text format
     public static String convertCoordinatesArrayToString(ArrayList<LatLng> coordsArray){
-        String result = "";
+        StringBuilder result = new StringBuilder(coordsArray.size() * 26);
         LatLng coord;
         for (int i=0; i < coordsArray.size(); i+=1) {
             coord = coordsArray.get(i);
-            result += coord.latitude + ",";
-            result += coord.longitude;
+            result.append(coord.latitude).append(',');
+            result.append(coord.longitude);
             if (i+1 < coordsArray.size()){
-                result += ",";
+                result.append(',');
             }
         }
-        return result;
+        return result.toString();
     }
 
     // This function takes the strings generated by convertCoordinatesArrayToString and turns
     // them back into their original form, an ArrayList<LatLng>
     public static ArrayList<LatLng> convertCoordinatesStringToArrayLatLng(String stringCoords){
-        List<String> arrayStringCoords = Arrays.asList(stringCoords.split(","));
         ArrayList<LatLng> coords = new ArrayList<LatLng>();
+        if (stringCoords.isEmpty()) {
+            return coords;
+        }
+        List<String> arrayStringCoords = Arrays.asList(stringCoords.split(","));
         LatLng current;
         double lat, lon;
         for(int i=0; i < arrayStringCoords.size(); i += 2){
@@ -157,27 +256,16 @@ public class DungeonRecord implements Parcelable {
         return coords;
     }
 
-    // This function coverts an ArrayList<Integer> to a space efficient string that can be easily
-    // stored in our database tables
-    public static String convertSkipArrayToString(ArrayList<Integer> skipsArray){
-        String result = "";
-        for (int i=0; i < skipsArray.size(); i+=1) {
-            result += skipsArray.get(i);
-            if (i+1 < skipsArray.size()){
-                result += ",";
-            }
-        }
-        return result;
-    }
-
-    // This function takes the strings generated by convertSkipArrayToString and turns
-    // them back into their original form, an ArrayList<Integer>
+    // This function takes the skips text of an old row and turns it back into its original form,
+    // an ArrayList<Integer>
     public static ArrayList<Integer> convertSkipStringToArrayInteger(String stringSkips){
         // Help from https://stackoverflow.com/questions/27599847/convert-comma-separated-string-to-list-without-intermediate-container
         // note i did it the non fancy way since i wasn't comfortable with the other
-        List<String> numbers = Arrays.asList(stringSkips.split(","));
-
         ArrayList<Integer> numbersInt = new ArrayList<>();
+        if (stringSkips.isEmpty()) {
+            return numbersInt;
+        }
+        List<String> numbers = Arrays.asList(stringSkips.split(","));
         for (String number : numbers) {
             numbersInt.add(Integer.valueOf(number));
         }
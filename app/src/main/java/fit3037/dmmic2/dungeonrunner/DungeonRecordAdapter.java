@@ -4,27 +4,31 @@ import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.BaseAdapter;
+import android.widget.ImageView;
 import android.widget.TextView;
-import java.util.ArrayList;
 
 /*
-* Adapter for DungeonRecord, for the list view on the DungeonJournal activity.
+* Adapter for DungeonRecordSummary, for the list view on the DungeonJournal activity.  The records
+* come from a DungeonJournalPager, which only holds the pages near where the list has scrolled.
+* Each row shows a thumbnail of the route, from TrackThumbnailCache.
 * */
 
 public class DungeonRecordAdapter extends BaseAdapter {
     private Context mCurrentContext;
-    private ArrayList<DungeonRecord> mRecordList;
+    private DungeonJournalPager mPager;
+    private TrackThumbnailCache mThumbnails;
 
-    public DungeonRecordAdapter(Context con, ArrayList<DungeonRecord> records) {
+    public DungeonRecordAdapter(Context con, DungeonJournalPager pager) {
         mCurrentContext = con;
-        mRecordList = records;
+        mPager = pager;
+        mThumbnails = TrackThumbnailCache.getInstance(con);
     }
 
     @Override
-    public int getCount() { return mRecordList.size(); }
+    public int getCount() { return mPager.getCount(); }
 
     @Override
-    public Object getItem(int i) { return mRecordList.get(i); }
+    public Object getItem(int i) { return mPager.get(i); }
 
     @Override
     public long getItemId(int i) { return i; }
@@ -44,9 +48,20 @@ public class DungeonRecordAdapter extends BaseAdapter {
         TextView rewardSummaryView = (TextView) view.findViewById(R.id.rewardSummaryTextView);
         TextView timeTakenView = (TextView) view.findViewById(R.id.timeTakenTextView);
         TextView distanceView = (TextView) view.findViewById(R.id.distanceTextView);
+        ImageView thumbnailView = (ImageView) view.findViewById(R.id.trackThumbnailView);
 
         // set the values
-        DungeonRecord target = mRecordList.get(i);
+        DungeonRecordSummary target = mPager.get(i);
+        if (target == null) {
+            // its page is being fetched again, the list is redrawn once it arrives
+            dateView.setText("");
+            typeOutcomeView.setText("");
+            rewardSummaryView.setText("");
+            timeTakenView.setText("");
+            distanceView.setText("");
+            mThumbnails.cancel(thumbnailView);
+            return view;
+        }
         dateView.setText(target.getDate());
 
         typeOutcomeView.setText(target.getType());
@@ -58,6 +73,8 @@ public class DungeonRecordAdapter extends BaseAdapter {
 
         distanceView.setText(getDisplayDistanceFromMeters(target.getDistance()));
 
+        mThumbnails.load(target.getId(), thumbnailView);
+
         return view;
 
     }
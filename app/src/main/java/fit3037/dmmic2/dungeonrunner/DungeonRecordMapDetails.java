@@ -4,21 +4,19 @@ import android.content.Intent;
 import android.os.Bundle;
 import android.support.v7.app.AppCompatActivity;
 import android.support.v7.widget.Toolbar;
+import android.util.Log;
 import android.widget.FrameLayout;
 
-import com.google.android.gms.maps.model.LatLng;
-
-import java.util.ArrayList;
-
 /*
 * This activity is for viewing the map of a dungeon record that has been previously completed.
+* The map is added straight away so it starts up while the record is read, and the record's track
+* is then streamed into it (see MapControlFragment.streamTrack), so nothing is decoded on the main
+* thread.
 * */
 
 public class DungeonRecordMapDetails extends AppCompatActivity {
 
     DungeonRecord mRecord;
-    ArrayList<LatLng> mCoordinatesList;
-    ArrayList<Integer> mSkipList;
     private MapControlFragment mMapFragment;
     private FrameLayout mFrame;
 
@@ -29,19 +27,41 @@ public class DungeonRecordMapDetails extends AppCompatActivity {
         Toolbar toolbar = (Toolbar) findViewById(R.id.toolbar);
         setSupportActionBar(toolbar);
 
-        Intent intent = getIntent();
-        mRecord = intent.getParcelableExtra("record");
-        getSupportActionBar().setTitle(mRecord.getDate());
-
-        // Map stuff
-        mCoordinatesList = DungeonRecord.convertCoordinatesStringToArrayLatLng(mRecord.getCoords());
-        mSkipList = DungeonRecord.convertSkipStringToArrayInteger(mRecord.getSkips());
-
-        mMapFragment = new MapControlFragment();
-        mMapFragment.initFragment(null, mCoordinatesList, mSkipList);
+        // a recreated activity gets its map fragment back from the fragment manager
         mFrame = findViewById(R.id.mapRecordDetail);
-        getSupportFragmentManager().beginTransaction().add(mFrame.getId(), mMapFragment).commit();
+        mMapFragment = (MapControlFragment) getSupportFragmentManager()
+                .findFragmentById(mFrame.getId());
+        if (mMapFragment == null) {
+            mMapFragment = new MapControlFragment();
+            getSupportFragmentManager().beginTransaction().add(mFrame.getId(), mMapFragment)
+                    .commit();
+        }
 
+        // The journal only hands over the id, so this is the one place a track gets loaded
+        Intent intent = getIntent();
+        DungeonRepository.getInstance(getApplicationContext()).getDungeonRecord(
+                intent.getLongExtra("recordId", -1),
+                new DungeonRepository.ResultCallback<DungeonRecord>() {
+                    @Override
+                    public void onResult(DungeonRecord record) {
+                        showRecord(record);
+                    }
+                });
+    }
+
+    private void showRecord(DungeonRecord record) {
+        if (isFinishing() || isDestroyed()) {
+            return;
+        }
+        if (record == null) {
+            Log.d("RECORD MAP DETAILS", "record no longer exists");
+            finish();
+            return;
+        }
+        mRecord = record;
+        getSupportActionBar().setTitle(mRecord.getDate());
+        mMapFragment.streamTrack(mRecord.getTrack(), mRecord.getDetailLevels(),
+                mRecord.getBounds());
     }
 
 }
@@ -0,0 +1,40 @@
+package fit3037.dmmic2.dungeonrunner;
+
+/*
+* The parts of a DungeonRecord shown in the Dungeon Journal list, i.e. everything but the track.
+* Tracks grow with every kilometre run, so the journal only ever loads these, and the full
+* DungeonRecord is only read when a single record is opened in DungeonRecordMapDetails.
+* */
+
+public class DungeonRecordSummary {
+
+    // Attributes, see DungeonRecord for what each one holds
+    private long _id;
+    private String mDate;
+    private String mType;
+    private int mOutcome;
+    private int mDistance;
+    private int mTime;
+    private String mReward;
+
+    // Getter Methods
+    public long getId() { return _id; }
+    public String getDate() { return mDate; }
+    public String getType() { return mType; }
+    public int getOutcome() { return mOutcome; }
+    public int getDistance() { return mDistance; }
+    public int getTime() { return mTime; }
+    public String getReward() { return mReward; }
+
+    // Constructor
+    public DungeonRecordSummary(long id, String date, String type, int outcome, int distance,
+            int time, String reward) {
+        this._id = id;
+        this.mDate = date;
+        this.mType = type;
+        this.mOutcome = outcome;
+        this.mDistance = distance;
+        this.mTime = time;
+        this.mReward = reward;
+    }
+}
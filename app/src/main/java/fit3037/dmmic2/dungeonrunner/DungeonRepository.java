@@ -0,0 +1,237 @@
+package fit3037.dmmic2.dungeonrunner;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/*
+* The way activities get at the database without ever doing so on the main thread.  Every method
+* here returns straight away, runs the matching DatabaseHelper call in the background, and hands
+* the result back on the main thread through a ResultCallback.
+*
+* Reads go to a small pool so a slow one doesn't hold up the rest.  With write-ahead logging on
+* (see DatabaseHelper) they can run alongside a write.  Writes all go to one writer thread, one
+* after another, in the order they were asked for.  A read asked for after a write can still
+* finish first, so anything that needs to see a write (e.g. refreshing a list after deleting from
+* it) should wait for that write's callback.
+*
+* DatabaseHelper itself is unchanged and still fine to call directly from code that is already in
+* the background (services, migrations...).
+* */
+
+public class DungeonRepository {
+
+    private static final int READ_THREADS = 2;
+
+    private static DungeonRepository sInstance;
+
+    private Context mContext;
+    private DatabaseHelper mDBHelper;
+    private ExecutorService mReadPool;
+    private ExecutorService mWriter;
+    private Handler mMainHandler;
+
+    // Receives the result of a call, on the main thread.  Writes pass null.
+    public interface ResultCallback<T> {
+        void onResult(T result);
+    }
+
+    public static synchronized DungeonRepository getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new DungeonRepository(context.getApplicationContext(),
+                    DatabaseHelper.getInstance(context));
+        }
+        return sInstance;
+    }
+
+    private DungeonRepository(Context context, DatabaseHelper dbHelper) {
+        mContext = context;
+        mDBHelper = dbHelper;
+        mReadPool = Executors.newFixedThreadPool(READ_THREADS, new BackgroundThreadFactory("DB read"));
+        mWriter = Executors.newSingleThreadExecutor(new BackgroundThreadFactory("DB write"));
+        mMainHandler = new Handler(Looper.getMainLooper());
+    }
+
+    // READS----------------------------------------------------------------------------------------
+
+    public void getAllEquippedEquipment(ResultCallback<ArrayList<Equipment>> callback) {
+        read(new Query<ArrayList<Equipment>>() {
+            @Override
+            public ArrayList<Equipment> run() { return mDBHelper.getAllEquippedEquipment(); }
+        }, callback);
+    }
+
+    public void getEquippedEquipmentByType(final String type, ResultCallback<Equipment> callback) {
+        read(new Query<Equipment>() {
+            @Override
+            public Equipment run() { return mDBHelper.getEquippedEquipmentByType(type); }
+        }, callback);
+    }
+
+    public void getAllNonEquippedEquipmentByType(final String type,
+            ResultCallback<ArrayList<Equipment>> callback) {
+        read(new Query<ArrayList<Equipment>>() {
+            @Override
+            public ArrayList<Equipment> run() { return mDBHelper.getAllNonEquippedEquipmentByType(type); }
+        }, callback);
+    }
+
+    public void getAllDungeonLevels(ResultCallback<ArrayList<DungeonLevel>> callback) {
+        read(new Query<ArrayList<DungeonLevel>>() {
+            @Override
+            public ArrayList<DungeonLevel> run() { return mDBHelper.getAllDungeonLevels(); }
+        }, callback);
+    }
+
+    public void getDungeonRecordSummariesBefore(final long beforeId, final int limit,
+            ResultCallback<ArrayList<DungeonRecordSummary>> callback) {
+        read(new Query<ArrayList<DungeonRecordSummary>>() {
+            @Override
+            public ArrayList<DungeonRecordSummary> run() {
+                return mDBHelper.getDungeonRecordSummariesBefore(beforeId, limit);
+            }
+        }, callback);
+    }
+
+    public void getDungeonRecord(final long recordId, ResultCallback<DungeonRecord> callback) {
+        read(new Query<DungeonRecord>() {
+            @Override
+            public DungeonRecord run() { return mDBHelper.getDungeonRecord(recordId); }
+        }, callback);
+    }
+
+    // Build a new piece of equipment as a reward.  Naming it can mean building the
+    // ItemDescriptorIndex, which reads the database, so this happens in the background too.
+    public void createReward(final int skillPoints, final String description,
+            ResultCallback<Equipment> callback) {
+        read(new Query<Equipment>() {
+            @Override
+            public Equipment run() { return new Equipment(0, skillPoints, description, 0); }
+        }, callback);
+    }
+
+    // WRITES---------------------------------------------------------------------------------------
+
+    // Take the application's long lived reference to the connection (see MyApplication).  The
+    // first open is when any schema upgrades run, so it is done on the writer like any other
+    // change; reads asked for meanwhile simply wait for it.  Once open, any outstanding data
+    // migrations are started.
+    public void openApplicationDatabase(final Context context) {
+        write(new Runnable() {
+            @Override
+            public void run() {
+                long start = StartupTiming.now();
+                mDBHelper.openDatabase();
+                StartupTiming.report("opening database", start);
+                DatabaseMigrations.runPendingInBackground(context);
+            }
+        }, null);
+    }
+
+    public void equipEquipment(final long idToEquip, ResultCallback<Void> callback) {
+        write(new Runnable() {
+            @Override
+            public void run() { mDBHelper.equipEquipment(idToEquip); }
+        }, callback);
+    }
+
+    public void removeEquipment(final Equipment equipment, ResultCallback<Void> callback) {
+        write(new Runnable() {
+            @Override
+            public void run() { mDBHelper.removeEquipment(equipment); }
+        }, callback);
+    }
+
+    public void removeDungeonRecord(final long recordId, ResultCallback<Void> callback) {
+        write(new Runnable() {
+            @Override
+            public void run() { mDBHelper.removeDungeonRecord(recordId); }
+        }, callback);
+    }
+
+    // Save the reward and record of a finished dungeon.  The run is then safe, so its RunJournal is
+    // deleted straight after, in the same task; left for the callback, a process death in between
+    // would have the run offered for recovery and saved a second time.
+    public void addDungeonResult(final Equipment reward, final DungeonRecord record,
+            ResultCallback<Void> callback) {
+        write(new Runnable() {
+            @Override
+            public void run() {
+                mDBHelper.addDungeonResult(reward, record);
+                RunJournal.discard(mContext);
+            }
+        }, callback);
+    }
+
+    public void resetData(ResultCallback<Void> callback) {
+        write(new Runnable() {
+            @Override
+            public void run() { mDBHelper.resetData(); }
+        }, callback);
+    }
+
+    // HELPERS--------------------------------------------------------------------------------------
+
+    private interface Query<T> {
+        T run();
+    }
+
+    private <T> void read(final Query<T> query, final ResultCallback<T> callback) {
+        mReadPool.execute(new Runnable() {
+            @Override
+            public void run() {
+                deliver(query.run(), callback);
+            }
+        });
+    }
+
+    private void write(final Runnable change, final ResultCallback<Void> callback) {
+        mWriter.execute(new Runnable() {
+            @Override
+            public void run() {
+                change.run();
+                deliver(null, callback);
+            }
+        });
+    }
+
+    private <T> void deliver(final T result, final ResultCallback<T> callback) {
+        if (callback == null) {
+            return;
+        }
+        mMainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                callback.onResult(result);
+            }
+        });
+    }
+
+    // Background priority threads, so database work never competes with drawing frames
+    static class BackgroundThreadFactory implements ThreadFactory {
+        private final String mName;
+        private int mCount = 0;
+
+        BackgroundThreadFactory(String name) {
+            mName = name;
+        }
+
+        @Override
+        public synchronized Thread newThread(final Runnable runnable) {
+            mCount += 1;
+            return new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                    runnable.run();
+                }
+            }, mName + " " + mCount);
+        }
+    }
+}
@@ -17,7 +17,6 @@ import com.google.android.gms.maps.model.LatLng;
 import java.text.DecimalFormat;
 import java.text.Format;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.Locale;
@@ -45,10 +44,10 @@ public class DungeonResults extends AppCompatActivity implements MapControlFragm
 
     private MapControlFragment mMapFragment;
     private FrameLayout mFrame;
-    private DatabaseHelper mDBHelper;
+    private DungeonRepository mRepository;
 
-    private ArrayList<LatLng> mCoordinatesList = new ArrayList<LatLng>();
-    private ArrayList<Integer> mSkipList = new ArrayList<Integer>();
+    private long mTrackId;
+    private Track mTrack;
     private DungeonLevel mSelection;
     private int mOutcome;
     private int mSkillPoints;
@@ -64,12 +63,23 @@ public class DungeonResults extends AppCompatActivity implements MapControlFragm
         getSupportActionBar().setTitle("Dungeon Results");
 
         // Set-up db and intent
-        mDBHelper = new DatabaseHelper(getApplicationContext());
+        mRepository = DungeonRepository.getInstance(getApplicationContext());
         Intent intent = getIntent();
 
         // Retrieve the selected dungeon and constraints  from previous activity
         mSelection = intent.getParcelableExtra("dungeonSelection");
 
+        // The run itself is handed over as an id in the TrackStore.  If it isn't there the process
+        // was restarted while this screen was open; the run is still in its RunJournal, and the
+        // Main Menu will offer to finish it from there.
+        mTrackId = intent.getLongExtra("trackId", TrackStore.NO_TRACK);
+        mTrack = TrackStore.getInstance().get(mTrackId);
+        if (mTrack == null) {
+            Log.d("DUNGEON RESULTS", "track " + mTrackId + " no longer in memory, leaving");
+            finish();
+            return;
+        }
+
         // Display total dungeon time and set time as an integer
         mDisplayTime = intent.getStringExtra("finalTime");
         TextView finalTimeView = (TextView) findViewById(R.id.timeView);
@@ -84,18 +94,18 @@ public class DungeonResults extends AppCompatActivity implements MapControlFragm
 
         // Display pace
         TextView finalPaceView = (TextView) findViewById(R.id.paceView);
-        double paceUgly = calculatePace(mTime, mDistance);
+        double paceUgly = OutcomeEvaluator.calculatePace(mTime, mDistance);
         DecimalFormat df = new DecimalFormat("#.00");
         String finalPace = df.format(paceUgly) + "km/h";
         finalPaceView.setText(finalPace);
 
-        // Determine outcome of dungeon and set Labels
-        mOutcome = determineOutcome(mSelection.getTime(), mSelection.getDistance(), mSelection.getPace(), mTime, mDistance);
+        // The outcome was decided as the run went (see OutcomeEvaluator), set Labels from it
+        mOutcome = intent.getIntExtra("outcome", OutcomeEvaluator.FAILURE);
         TextView successOrFailView = (TextView) findViewById(R.id.successOrFailureTextView);
         TextView outcomeDescriptionView = (TextView) findViewById(R.id.outcomeDescriptionTextView);
         String successOrFailLabel;
         String outcomeDescriptionLabel;
-        if (mOutcome == 1) {
+        if (mOutcome == OutcomeEvaluator.SUCCESS) {
             successOrFailLabel = "Success!";
             successOrFailView.setText(successOrFailLabel);
             outcomeDescriptionLabel = mSelection.getName() + ": passed";
@@ -115,27 +125,34 @@ public class DungeonResults extends AppCompatActivity implements MapControlFragm
         String prettyTime = formatter.format(dateTime);
 
         // Map stuff
-        mCoordinatesList = intent.getParcelableArrayListExtra("coordinatesList");
-        mSkipList = intent.getIntegerArrayListExtra("skipIndicies");
         mMapFragment = new MapControlFragment();
-        mMapFragment.initFragment(this, mCoordinatesList, mSkipList);
+        // not saved yet, so the map works out the levels of detail itself
+        mMapFragment.initFragment(this, mTrackId, null);
         mFrame = findViewById(R.id.mapFrame);
         getSupportFragmentManager().beginTransaction().add(mFrame.getId(), mMapFragment).commit();
 
         // This final function goes and calls the weather service to get weather info, and finally
         // can then reward an item based on this information.
-        calculateWeatherStatus(mCoordinatesList, prettyTime);
+        calculateWeatherStatus(mTrack, prettyTime);
 
 
     }
 
-    private void finalRewardRoutine(String prettyTime) {
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (isFinishing()) {
+            TrackStore.getInstance().remove(mTrackId);
+        }
+    }
+
+    private void finalRewardRoutine(final String prettyTime) {
         // Calculate skill points of the item
         mSkillPoints = determineRewardSkillPoints(mTime, mDistance, mOutcome, mSelection.getMultiplier(), mWeatherModifier);
 
         // Generate a description for the item
-        String outcomeDescription;
-        if (mOutcome == 1) {
+        final String outcomeDescription;
+        if (mOutcome == OutcomeEvaluator.SUCCESS) {
             outcomeDescription = "success";
         }
         else {
@@ -143,8 +160,16 @@ public class DungeonResults extends AppCompatActivity implements MapControlFragm
         }
         String description = "Source: " + mSelection.getName() + " [" + outcomeDescription + "]";
 
-        // Generate an item as reward
-        Equipment reward = new Equipment(0, mSkillPoints, description, 0);
+        // Generate an item as reward, in the background since naming it reads item descriptors
+        mRepository.createReward(mSkillPoints, description, new DungeonRepository.ResultCallback<Equipment>() {
+            @Override
+            public void onResult(Equipment reward) {
+                showAndSaveReward(reward, prettyTime, outcomeDescription);
+            }
+        });
+    }
+
+    private void showAndSaveReward(Equipment reward, String prettyTime, String outcomeDescription) {
         TextView rewardTextView = (TextView) findViewById(R.id.itemNameResultsTextView);
         rewardTextView.setText(reward.getName());
         TextView rewardStatTextView = (TextView) findViewById(R.id.itemStatsResultsTextView);
@@ -155,26 +180,17 @@ public class DungeonResults extends AppCompatActivity implements MapControlFragm
                 ", Int: " + reward.getIntelligence();
         rewardStatTextView.setText(stats);
 
-        // Save the new equipment
-        mDBHelper.addEquipment(reward);
+        // The track is stored in a compact binary form, see TrackCodec for the details
+        byte[] track = TrackCodec.encode(mTrack);
 
-        // mCoordinatesList and mSkipList must be as strings to store in the database.
-        // rather than use a toString method, which results in strings such as:
-        //      [lat/lng: (-37.78098475,145.11339419), lat/lng: (-37.78093189,145.1133283)], and
-        //      [2, 5]
-        // we do our own implementation that is slightly more space efficient, which gives strings:
-        //      -37.78098475,145.11339419,-37.78093189,145.1133283          and
-        //      2,5
-
-        String coordsAsString = DungeonRecord.convertCoordinatesArrayToString(mCoordinatesList);
-        String skipsAsString = DungeonRecord.convertSkipArrayToString(mSkipList);
-
-        // Save the dungeon record
+        // Save the new equipment and the dungeon record.  The track has kept its bounds up to date
+        // all run, the levels of detail are worked out on the way into the database.
         DungeonRecord record = new DungeonRecord(0, prettyTime,
                 mSelection.getName() + " [" + outcomeDescription + "]",
                 mOutcome, mDistance, mTime, reward.getName() + " (" + mSkillPoints + ")",
-                coordsAsString, skipsAsString);
-        mDBHelper.addDungeonRecord(record);
+                track, null, mTrack.getBounds());
+        // the run's journal goes along with it, see DungeonRepository.addDungeonResult
+        mRepository.addDungeonResult(reward, record, null);
     }
 
     @Override
@@ -198,47 +214,26 @@ public class DungeonResults extends AppCompatActivity implements MapControlFragm
         return seconds;
     }
 
-    // Determine whether the dungeon was a success or a failure
-    // 1 is a success, 0 is a failure, as this corresponds to the dungeonRecords database
-    public int determineOutcome(int timeLimit, int distanceRequired, double paceRequired, int timeTaken, int distanceCovered){
-        if (timeTaken == 0) { timeTaken = 1; }
-
-        if ((timeLimit == 0) && (distanceRequired != 0) && (paceRequired == 0)){
-            return ((distanceCovered >= distanceRequired) ? 1 : 0);
+    // The other way round, formatted the way the tracker's chronometer shows it (MM:SS, or H:MM:SS
+    // past an hour)
+    public static String intToDisplayTimeConverter(int seconds) {
+        if (seconds >= 60 * 60) {
+            return String.format(Locale.UK, "%d:%02d:%02d",
+                    seconds / (60 * 60), (seconds / 60) % 60, seconds % 60);
         }
-
-        else if ((timeLimit != 0) && (distanceRequired != 0) && (paceRequired != 0)){
-            if((distanceCovered >= distanceRequired)&& (timeTaken <= timeLimit)){
-                return 1;
-            }
-            double pace = calculatePace(timeTaken, distanceCovered);
-            return (((pace >= paceRequired) && (timeTaken >= timeLimit)) ? 1 : 0);
-        }
-
-        else if ((timeLimit != 0) && (distanceRequired == 0) && (paceRequired != 0)){
-            double pace = calculatePace(timeTaken, distanceCovered);
-            return (((pace >= paceRequired) && (timeTaken >= timeLimit)) ? 1 : 0);
-        }
-
-        else if ((timeLimit== 0) && (distanceRequired == 0) && (paceRequired == 0)){
-            // Dungeon Farm - always results in a success
-            return 1;
-        }
-
-        Log.d("DETERMINEOUTCOME", "bad data in dungeonLevels... should always return before here");
-        return 0;
+        return String.format(Locale.UK, "%02d:%02d", seconds / 60, seconds % 60);
     }
 
     // Determine the amount of skill points the item has, based on the running stats and the outcome
     // of the dungeon
     public int determineRewardSkillPoints(int time, int distance, int outcome, double levelMultiplier, double weatherModifier){
-        double pace = calculatePace(time, distance);
+        double pace = OutcomeEvaluator.calculatePace(time, distance);
         double base = pace * (distance/10.00);
         int randomInt;
         double randomMultiplier;
         double totalMultiplier;
         Random random = new Random();
-        if (outcome == 1){
+        if (outcome == OutcomeEvaluator.SUCCESS){
             // successful dungeons get a random multiplier between 1 and 1.3
             randomInt = (random.nextInt(13 - 10 + 1) + 10);
             randomMultiplier = randomInt / 10.00;
@@ -255,30 +250,19 @@ public class DungeonResults extends AppCompatActivity implements MapControlFragm
         return (int) Math.round(base * totalMultiplier);
     }
 
-    // calculate the pace using time and distance.  note that time is seconds, distance is meters,
-    // but pace is km/h.  This goes for all usages in the app and databases!
-    public double calculatePace(int time, int distance) {
-        if (time > 0) {
-            return ((distance / 1000.00) / (time / (60.00 * 60.00)));
-        }
-        else {
-            return 0;
-        }
-    }
-
     // This function uses the Dark Sky API together with the kevinzetterstrom wrapper to determine
     // the weather conditions on the run.  It then goes and calls the finalRewardRoutine once it has
     // the data it requires.
     // https://darksky.net/dev
     // https://github.com/kevinzetterstrom/forecast-android
-    private void calculateWeatherStatus(ArrayList<LatLng> givenCoordinates, final String prettyTime){
+    private void calculateWeatherStatus(Track givenTrack, final String prettyTime){
         ForecastConfiguration configuration =
                 new ForecastConfiguration.Builder("YOUR API KEY HERE")
                         .setCacheDirectory(getCacheDir())
                         .build();
         ForecastClient.create(configuration);
 
-        if (givenCoordinates.size() == 0){
+        if (givenTrack.size() == 0){
             // if no gps data was recieved, then reflect a no data unsuccessful run,
             // setting all UI elements as such
             TextView successOrFailView = (TextView) findViewById(R.id.successOrFailureTextView);
@@ -292,12 +276,13 @@ public class DungeonResults extends AppCompatActivity implements MapControlFragm
             rewardTextView.setText("No item recieved!");
             TextView rewardStatTextView = (TextView) findViewById(R.id.itemStatsResultsTextView);
             rewardStatTextView.setText(":(");
+            // nothing to save, and nothing worth recovering either
+            RunJournal.discard(getApplicationContext());
             return;
 
         }
-        LatLng dungeonStart = givenCoordinates.get(0);
-        double latitude = dungeonStart.latitude;
-        double longitude = dungeonStart.longitude;
+        double latitude = givenTrack.getLatitude(0);
+        double longitude = givenTrack.getLongitude(0);
 
         ForecastClient.getInstance()
                 .getForecast(latitude, longitude, new Callback<Forecast>() {
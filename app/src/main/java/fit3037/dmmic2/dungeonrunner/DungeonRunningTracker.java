@@ -2,11 +2,8 @@ package fit3037.dmmic2.dungeonrunner;
 
 import android.Manifest;
 import android.app.AlertDialog;
-import android.content.BroadcastReceiver;
-import android.content.Context;
 import android.content.DialogInterface;
 import android.content.Intent;
-import android.content.IntentFilter;
 import android.content.pm.PackageManager;
 import android.os.Bundle;
 import android.os.SystemClock;
@@ -20,17 +17,21 @@ import android.widget.Button;
 import android.widget.Chronometer;
 import android.widget.TextView;
 
-import com.google.android.gms.maps.model.LatLng;
-
-import java.util.ArrayList;
+import java.text.DecimalFormat;
 
 
 /*
 * This activity coordinates the tracking of the user and provides them with the start/pause/finish
 * interface.  It allows them to start and stop tracking of their movement as appropriate.
 * It does not implement the location things as was done in the tute sheets, it instead calls a
-* service to do this for us.  This is because the in-activity implementation does not account for
-* the need of the onLocationCalled method to continue operation when the screen is off.
+* service to do this for us, which hands each fix back through the LocationChannel.  This is
+* because the in-activity implementation does not account for the need of the onLocationCalled
+* method to continue operation when the screen is off.
+*
+* The fixes themselves are all dealt with on a background thread by a RunPipeline, which works out
+* the distance and keeps the track.  This activity just passes the button presses on to it, and
+* shows the snapshots of the run it sends back a few times a second, including how the run stands
+* against the dungeon so far (see OutcomeEvaluator).
 *
 * Implementing the GPS as a service was done with the help of:
 * https://www.youtube.com/watch?v=lvcGh2ZgHeA
@@ -39,8 +40,7 @@ import java.util.ArrayList;
 * Help with chronometer was thanks to the follow video:
 * https://www.youtube.com/watch?v=LzfaWf7_iHw&t=173s
 *
-* Help with distance calculation:
-* https://stackoverflow.com/questions/3694380/calculating-distance-between-two-points-using-latitude-longitude-what-am-i-doi
+* The distance calculation itself is in DistanceEngine.
 *
 * */
 
@@ -58,39 +58,43 @@ import java.util.ArrayList;
 *       without time added.  So in theory, you could start the app, jump in a car, pause, drive
 *       50km, unpause, and have an impossibly high pace with very long kilometers, and get great
 *       rewards.  We can't have that!
-*  -Take note of the index of mRunningCoordinates, saved in mSkipIndicies
-*       By recording the index of mRunningCoordinates we can ensure that a pause is not recorded
+*  -Take note of the index of the last point in the track, saved as one of its skips
+*       By recording the index of the last point we can ensure that a pause is not recorded
 *       on the users map.  In case they travel during the pause, we must avoid having a large
 *       straight line on the map that wont actually be indicative of the dungeon they undertook.
 *       Pause indexes are passed to the Dungeon Results, that knows to not graph at the time of
 *       a pause.
+* Both of these are done by RunPipeline.pause.
 * */
 
 
-public class DungeonRunningTracker extends AppCompatActivity {
+public class DungeonRunningTracker extends AppCompatActivity implements RunPipeline.Listener {
     // Request code we will be checking for
     private static final int LOCATION_REQUEST_CODE = 1337;
 
     private boolean mCanAccessLocation;
 
-    private LatLng mCurrentLocation;
-    private double mCurrentElevation;
-    private double totalDistance = 0;
+    private DungeonLevel mSelection;
 
-    private ArrayList<LatLng> mRunningCoordinates = new ArrayList<LatLng>();
-    private boolean mSkipNext = false;
-    private ArrayList<Integer> mSkipIndicies = new ArrayList<Integer>();
+    // Processes every fix of the run off the main thread (see RunPipeline)
+    private RunPipeline mPipeline;
+    private boolean mFinished = false;
+    // whether the GPS service is running, i.e. started and not paused
+    private boolean mTracking = false;
 
     Button mStartButton;
     Button mPauseButton;
     Button mResumeButton;
     Button mFinishButton;
 
-    private BroadcastReceiver broadcastReceiver;
-
     private Chronometer mChronometer;
     private long lastPause;
 
+    private TextView mCoordsView;
+    private TextView mCounterView;
+    private TextView mDistanceView;
+    private TextView mOutcomeView;
+
     // FOR DEBUGGING
     public int count_calls_for_coordinates = 0;
 
@@ -104,10 +108,12 @@ public class DungeonRunningTracker extends AppCompatActivity {
         getSupportActionBar().setTitle("Dungeon Tracker");
 
         Intent intent = getIntent();
-        final DungeonLevel selection = intent.getParcelableExtra("dungeonLevel");
+        mSelection = intent.getParcelableExtra("dungeonLevel");
 
-        TextView displayCoordsView = (TextView) findViewById(R.id.coordsView);
-        TextView displayCounter = (TextView) findViewById(R.id.countTimesLocChangedView);
+        mCoordsView = (TextView) findViewById(R.id.coordsView);
+        mCounterView = (TextView) findViewById(R.id.countTimesLocChangedView);
+        mDistanceView = (TextView) findViewById(R.id.distanceCoveredDebugViewer);
+        mOutcomeView = (TextView) findViewById(R.id.liveOutcomeView);
 
         mStartButton = findViewById(R.id.startButton);
         mPauseButton = findViewById(R.id.pauseButton);
@@ -133,12 +139,18 @@ public class DungeonRunningTracker extends AppCompatActivity {
             mStartButton.setEnabled(true);
         }
 
+        // Listen for fixes from the GPS service for as long as this activity exists, so tracking
+        // carries on while the screen is off
+        mPipeline = new RunPipeline(this, mSelection, this);
+
         // On Click: Start a new fitness tracking session
         mStartButton.setOnClickListener(new View.OnClickListener() {
             @Override
             public  void onClick(View v) {
                 mChronometer.setBase(SystemClock.elapsedRealtime());
                 mChronometer.start();
+                mPipeline.start();
+                mTracking = true;
                 // disable the start button
                 mStartButton.setEnabled(false);
                 // enable the pause button
@@ -146,6 +158,8 @@ public class DungeonRunningTracker extends AppCompatActivity {
 
                 // start up the gps service
                 Intent gps = new Intent(getApplicationContext(), GPSService.class);
+                gps.putExtra("dungeonLevel", mSelection);
+                gps.putExtra("trackerVisible", true);
                 startService(gps);
             }
         });
@@ -158,25 +172,18 @@ public class DungeonRunningTracker extends AppCompatActivity {
                 lastPause = SystemClock.elapsedRealtime();
                 mChronometer.stop();
 
-                // enable the resume button
-                mResumeButton.setEnabled(true);
-                // enable the finish button
-                mFinishButton.setEnabled(true);
-                // disable the pause button
+                // disable the pause button, resume and finish are enabled once the pipeline has
+                // every fix from before the pause, see onPaused
                 mPauseButton.setEnabled(false);
 
-                // stop the gps service
+                // stop the gps service, which hands over any fixes it is holding back first
+                mTracking = false;
                 Intent gps = new Intent(getApplicationContext(), GPSService.class);
                 stopService(gps);
 
-                // this flag is set true so distance is not calculated between last point before
-                // pausing and first point after resuming (it is reset to false by call of distance
-                // function)
-                mSkipNext = true;
-                // store the index of the running coord at the skip spot
-                if (mRunningCoordinates.size() != 0) {
-                    mSkipIndicies.add(mRunningCoordinates.size() - 1);
-                }
+                // distance is not calculated between last point before pausing and first point
+                // after resuming, and the index of the running coord at the skip spot is stored
+                mPipeline.pause(lastPause - mChronometer.getBase());
             }
         });
 
@@ -187,6 +194,8 @@ public class DungeonRunningTracker extends AppCompatActivity {
 
                 mChronometer.setBase(mChronometer.getBase() + SystemClock.elapsedRealtime() - lastPause);
                 mChronometer.start();
+                mPipeline.resume();
+                mTracking = true;
 
                 // disable the resume button
                 mResumeButton.setEnabled(false);
@@ -197,6 +206,8 @@ public class DungeonRunningTracker extends AppCompatActivity {
 
                 // start up the gps service once more
                 Intent gps = new Intent(getApplicationContext(), GPSService.class);
+                gps.putExtra("dungeonLevel", mSelection);
+                gps.putExtra("trackerVisible", true);
                 startService(gps);
             }
         });
@@ -206,22 +217,40 @@ public class DungeonRunningTracker extends AppCompatActivity {
             @Override
             public  void onClick(View v) {
                 Log.d("LOCATION FUNCTIONALITY", "total times we called onLocationChanged: " + count_calls_for_coordinates);
-                Intent newIntent = new Intent(DungeonRunningTracker.this, DungeonResults.class);
-                CharSequence finalTime = mChronometer.getText().toString();
-                Log.d("INTENT EXTRA", "finalTime before intent: " + finalTime);
-                Log.d("INTENT EXTRA", "chronometer test to get final: " + mChronometer.getText());
-                newIntent.putExtra("finalTime", finalTime);
-                int roundedDistance = (int) Math.rint(totalDistance);
-                newIntent.putExtra("finalDistance", roundedDistance);
-                newIntent.putExtra("coordinatesList", mRunningCoordinates);
-                newIntent.putExtra("skipIndicies", mSkipIndicies);
-                newIntent.putExtra("dungeonSelection", selection);
-                // Go to Dungeon Results
-                startActivity(newIntent);
+                // the pipeline hands the run over once it has dealt with every fix before this,
+                // see onFinished
+                mFinishButton.setEnabled(false);
+                mPipeline.finish();
             }
         });
     }
 
+    // Called by the pipeline once the pause has taken effect
+    @Override
+    public void onPaused() {
+        // enable the resume button
+        mResumeButton.setEnabled(true);
+        // enable the finish button
+        mFinishButton.setEnabled(true);
+    }
+
+    // Called by the pipeline once the finished run is in the TrackStore
+    @Override
+    public void onFinished(long trackId, int time, int distance, int outcome) {
+        mFinished = true;
+        mFinishButton.setEnabled(true);
+        Intent newIntent = new Intent(DungeonRunningTracker.this, DungeonResults.class);
+        String finalTime = DungeonResults.intToDisplayTimeConverter(time);
+        Log.d("INTENT EXTRA", "finalTime before intent: " + finalTime);
+        newIntent.putExtra("finalTime", finalTime);
+        newIntent.putExtra("finalDistance", distance);
+        newIntent.putExtra("outcome", outcome);
+        newIntent.putExtra("trackId", trackId);
+        newIntent.putExtra("dungeonSelection", mSelection);
+        // Go to Dungeon Results
+        startActivity(newIntent);
+    }
+
     public void requestPermissions() {
         // We are checking if we need permission for fine location
         if(ActivityCompat.shouldShowRequestPermissionRationale(this,
@@ -277,118 +306,68 @@ public class DungeonRunningTracker extends AppCompatActivity {
     }
 
 
+    // Called by the pipeline, at most every RunPipeline.UI_INTERVAL_MS, with the latest state of
+    // the run
     @Override
-    protected void onResume() {
-        super.onResume();
-        if(broadcastReceiver == null){
-            broadcastReceiver = new BroadcastReceiver() {
-                @Override
-                public void onReceive(Context context, Intent intent) {
-
-                    Log.d("LOCATIONFUNCTIONALITY", "onReceieve called, must have got an update from the service");
-                    count_calls_for_coordinates += 1;  // FOR DEBUG
-
-                    // display the coords on screen
-                    TextView displayCoordsView = (TextView) findViewById(R.id.coordsView);
-                    String extraCoordinateAltitudeString = intent.getStringExtra("coordinates");
-                    displayCoordsView.setText(extraCoordinateAltitudeString);
-
-                    // FOR DEBUG: display how many times this has been called
-                    TextView displayCounter = (TextView) findViewById(R.id.countTimesLocChangedView);
-                    displayCounter.setText("Polls: " + count_calls_for_coordinates);
-
-                    // Convert the string into a nice LatLng that can be used by google map in
-                    // next activity
-                    // https://stackoverflow.com/questions/27261670/convert-string-to-latlng
-
-                    // save the previous coordinates and elevation
-                    LatLng mPreviousLocation = mCurrentLocation;
-                    double mPreviousElevation = mCurrentElevation;
-
-                    // extract the latitude, longitude and elevation from the string extra
-                    String[] chunkedCoordinateAltitude =  extraCoordinateAltitudeString.split(" ");
-                    double parsedLatitude = Double.parseDouble(chunkedCoordinateAltitude[0]);
-                    double parsedLongitude = Double.parseDouble(chunkedCoordinateAltitude[1]);
-                    double parsedElevation = Double.parseDouble(chunkedCoordinateAltitude[2]);
-
-                    // update the current location and elevation
-                    mCurrentLocation = new LatLng(parsedLatitude, parsedLongitude);
-                    mCurrentElevation = parsedElevation;
-                    Log.d("LOCATION FUNCTIONALITY", "the location is: " + mCurrentLocation.toString());
-
-                    // if current location is null we can't do anything, so wait until its not null
-                    if (mCurrentLocation != null) {
-
-                        // Don't bother saving previous location if it is the exact same as current
-                        // location, as this will only create more work for map creation and
-                        // distance calculation with no gain
-                        if (mCurrentLocation != mPreviousLocation){
-                            mRunningCoordinates.add(mCurrentLocation);
-                            Log.d("COORDS ARRAY BUILDING", "the location is: " + mCurrentLocation.toString());
-                            Log.d("ALTITUDES", "current: " + mCurrentElevation);
-                            Log.d("ALTITUDES", "prev: " + mPreviousElevation);
-                            // if the previous location is also not null, we can go on with a
-                            // distance calculation
-                            if (mPreviousLocation != null) {
-                                // if the skip next flag is set, then skip the next distance
-                                // calculation, and set the flag to false.  This flag is set by
-                                // the pause button to address concerns of distance between pauses
-                                // being added up.
-                                if (mSkipNext){
-                                    mSkipNext = false;
-                                }
-                                else {
-                                    // we have everything right to calculate distance!
-                                    double segmentDistance = distance(
-                                            mPreviousLocation.latitude, mCurrentLocation.latitude,
-                                            mPreviousLocation.longitude, mCurrentLocation.longitude,
-                                            mPreviousElevation, mCurrentElevation);
-                                    totalDistance += segmentDistance;
-                                    TextView distanceCounter = (TextView) findViewById(R.id.distanceCoveredDebugViewer);
-                                    distanceCounter.setText(Math.round(totalDistance) + "m");
-                                }
-                            }
-                        }
-                    }
-                }
-            };
+    public void onSnapshot(RunPipeline.RunSnapshot snapshot) {
+        count_calls_for_coordinates = snapshot.getSamples();  // FOR DEBUG
+
+        // display the coords on screen
+        mCoordsView.setText(snapshot.getLatitude() + " " + snapshot.getLongitude() + " " +
+                snapshot.getAltitude());
+
+        // FOR DEBUG: display how many times a fix has come in
+        mCounterView.setText("Polls: " + count_calls_for_coordinates);
+
+        mDistanceView.setText(Math.round(snapshot.getDistance()) + "m");
+
+        // how the run stands against the dungeon
+        String outcome;
+        if (snapshot.isPassing()) {
+            outcome = "Passed at " +
+                    DungeonResults.intToDisplayTimeConverter(snapshot.getProjectedFinish());
+        } else if (snapshot.getProjectedFinish() == OutcomeEvaluator.NO_FINISH) {
+            outcome = "Not passing yet";
+        } else {
+            outcome = "On course to pass at " +
+                    DungeonResults.intToDisplayTimeConverter(snapshot.getProjectedFinish());
+        }
+        if (snapshot.getPaceNeeded() > 0) {
+            outcome += ", need " + new DecimalFormat("#0.0").format(snapshot.getPaceNeeded()) +
+                    "km/h";
         }
-        registerReceiver(broadcastReceiver, new IntentFilter("location_update"));
+        mOutcomeView.setText(outcome);
     }
 
     @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        if(broadcastReceiver != null){
-            unregisterReceiver(broadcastReceiver);
+    protected void onStart() {
+        super.onStart();
+        // the run is on screen, so have fixes delivered as they are taken
+        setTrackerVisible(true);
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        // nobody is watching, so let fixes be batched to save battery (see SamplingPolicy)
+        setTrackerVisible(false);
+    }
+
+    // Let the GPS service know whether the run is on screen, if it is running
+    private void setTrackerVisible(boolean visible) {
+        if (!mTracking) {
+            return;
         }
+        Intent gps = new Intent(getApplicationContext(), GPSService.class);
+        gps.putExtra("trackerVisible", visible);
+        startService(gps);
     }
 
-    /*
-    * This way of getting the distance between two lat long coordiantes is known as the  Haversine
-    * Method.  I prefer to use this as I minimise the use of external API's where possible (and it
-    * is supposedly more accurate than a similar function offered by the google toolkit).
-    *
-    * Taken from:
-    * https://stackoverflow.com/questions/3694380/calculating-distance-between-two-points-using-latitude-longitude-what-am-i-doi
-    * */
-    public static double distance(double lat1, double lat2, double lon1,
-                                  double lon2, double el1, double el2) {
-        final int R = 6371; // Radius of the earth
-
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        double distance = R * c * 1000; // convert to meters
-
-        double height = el1 - el2;
-
-        distance = Math.pow(distance, 2) + Math.pow(height, 2);
-
-        return Math.sqrt(distance);
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        // backing out of a run without finishing it throws the run away
+        mPipeline.quit(isFinishing() && !mFinished);
     }
 
 }
@@ -23,7 +23,7 @@ public class DungeonSelection extends AppCompatActivity implements AdapterView.O
     private ListView mListView;
     private DungeonLevelAdapter mAdapter;
     private ArrayList<DungeonLevel> mLevels;
-    private DatabaseHelper mDBHelper;
+    private DungeonRepository mRepository;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -33,21 +33,22 @@ public class DungeonSelection extends AppCompatActivity implements AdapterView.O
         setSupportActionBar(toolbar);
         getSupportActionBar().setTitle("Dungeon Selection");
 
-        mDBHelper = new DatabaseHelper(getApplicationContext());
-        mDBHelper.initializeDungeonLevels();
-
         // Get the database handler
-        mDBHelper = new DatabaseHelper(getApplicationContext());
-
-        // initialise the list of dungeon levels
-        mLevels = new ArrayList<>(mDBHelper.getAllDungeonLevels());
+        mRepository = DungeonRepository.getInstance(getApplicationContext());
         mListView = (ListView) findViewById(R.id.dungeonSelectionListView);
-
-        // create adapter and associate it with equipped list
-        mAdapter = new DungeonLevelAdapter(this, mLevels);
         // set on clicks (long for deletion, regular for viewing in detail)
         mListView.setOnItemClickListener(this);
-        mListView.setAdapter(mAdapter);
+
+        // initialise the list of dungeon levels
+        mRepository.getAllDungeonLevels(new DungeonRepository.ResultCallback<ArrayList<DungeonLevel>>() {
+            @Override
+            public void onResult(ArrayList<DungeonLevel> levels) {
+                mLevels = levels;
+                // create adapter and associate it with the level list
+                mAdapter = new DungeonLevelAdapter(DungeonSelection.this, mLevels);
+                mListView.setAdapter(mAdapter);
+            }
+        });
 
     }
 
@@ -45,6 +45,28 @@ public class Equipment implements Parcelable  {
             COLUMN_EQUIPPED + " INTEGER NOT NULL" +
             ")";
 
+    // Compiled insert used when bulk loading, bind arguments follow the column order above
+    public static final String INSERT_STATEMENT = "INSERT INTO "
+            + TABLE_NAME + "(" +
+            COLUMN_NAME + ", " +
+            COLUMN_TYPE + ", " +
+            COLUMN_ARMOUR + ", " +
+            COLUMN_DAMAGE + ", " +
+            COLUMN_STRENGTH + ", " +
+            COLUMN_AGILITY + ", " +
+            COLUMN_INTELLIGENCE + ", " +
+            COLUMN_DESCRIPTION + ", " +
+            COLUMN_EQUIPPED +
+            ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Index backing the lookups of equipped and non-equipped items of a given type
+    public static final String INDEX_TYPE_EQUIPPED = "equipment_type_equipped";
+    public static final String CREATE_INDEX_STATEMENT = "CREATE INDEX IF NOT EXISTS "
+            + INDEX_TYPE_EQUIPPED + " ON " + TABLE_NAME + "(" +
+            COLUMN_TYPE + ", " +
+            COLUMN_EQUIPPED +
+            ")";
+
     // Equipment attributes
     private long _id; // for database purposes
     private String mName;
@@ -90,10 +112,15 @@ public class Equipment implements Parcelable  {
     private int mAgilityBias = 0;
     private int mIntelligenceBias = 0;
 
-    private DatabaseHelper mDBHelper;
-
     private Context mContext = MyApplication.getContext();
 
+    // What each kind of descriptor is allowed to match, see getStyleAdjective for the rules
+    private static final String[] MATCH_ALL = {"all"};
+    private static final String[] ADJECTIVE_MATCH_ARMOUR = {"all", "armour"};
+    private static final String[] ADJECTIVE_MATCH_SHARP = {"all", "sharp", "weapon"};
+    private static final String[] ADJECTIVE_MATCH_BLUNT = {"all", "blunt", "weapon"};
+    private static final String[] ADJECTIVE_MATCH_RANGED = {"all", "ranged", "weapon"};
+
     // Equipment Constructor for  parcelable
     private Equipment(Parcel in){
         _id = in.readLong();
@@ -228,26 +255,20 @@ public class Equipment implements Parcelable  {
 
     private String getTypeSpecificNoun(){
         // typeNouns only match to one of the nine standard equipment types
-        mDBHelper = new DatabaseHelper(mContext);
+        ItemDescriptorIndex index = ItemDescriptorIndex.getInstance(mContext);
+        int typeNoun = index.pickRandom("typeNoun", new String[]{this.getType()});
 
-        ArrayList<String> matchTo = new ArrayList<>();
-        matchTo.add(this.getType()); // grabs whether its a helm, sharp, etc...
-        ItemDescriptor typeNoun = mDBHelper.getRandomItemDescriptor("typeNoun", matchTo);
-
-        accumulateBiases(typeNoun);
-        return typeNoun.getDescriptor();
+        accumulateBiases(index, typeNoun);
+        return index.getDescriptor(typeNoun);
     }
 
     private String getStyleNoun(){
         // styleNouns always match "all"
-        mDBHelper = new DatabaseHelper(mContext);
-
-        ArrayList<String> matchTo = new ArrayList<>();
-        matchTo.add("all");
-        ItemDescriptor styleNoun = mDBHelper.getRandomItemDescriptor("styleNoun", matchTo);
+        ItemDescriptorIndex index = ItemDescriptorIndex.getInstance(mContext);
+        int styleNoun = index.pickRandom("styleNoun", MATCH_ALL);
 
-        accumulateBiases(styleNoun);
-        return styleNoun.getDescriptor();
+        accumulateBiases(index, styleNoun);
+        return index.getDescriptor(styleNoun);
     }
 
     private String getStyleAdjective(){
@@ -260,31 +281,35 @@ public class Equipment implements Parcelable  {
         //      -"ranged" if its type ranged
         //      -there is no matching for specific armour, such as "chest" or "head"
 
-        mDBHelper = new DatabaseHelper(mContext);
-
-        ArrayList<String> matchTo = new ArrayList<>();
-        matchTo.add("all");
-
+        String[] matchTo;
         if (isWeapon(this.getType())) {
-            matchTo.add(this.getType());
-            matchTo.add("weapon");
+            if (Objects.equals(this.getType(), "sharp")) {
+                matchTo = ADJECTIVE_MATCH_SHARP;
+            }
+            else if (Objects.equals(this.getType(), "blunt")) {
+                matchTo = ADJECTIVE_MATCH_BLUNT;
+            }
+            else {
+                matchTo = ADJECTIVE_MATCH_RANGED;
+            }
         }
         else {
          // else it must be armour
-            matchTo.add("armour");
+            matchTo = ADJECTIVE_MATCH_ARMOUR;
         }
 
-        ItemDescriptor styleNoun = mDBHelper.getRandomItemDescriptor("styleAdjective", matchTo);
-        accumulateBiases(styleNoun);
-        return styleNoun.getDescriptor();
+        ItemDescriptorIndex index = ItemDescriptorIndex.getInstance(mContext);
+        int styleAdjective = index.pickRandom("styleAdjective", matchTo);
+        accumulateBiases(index, styleAdjective);
+        return index.getDescriptor(styleAdjective);
     }
 
-    private void accumulateBiases(ItemDescriptor itemDescriptor){
-        this.mArmourBias += itemDescriptor.getArmourBias();
-        this.mDamageBias += itemDescriptor.getDamageBias();
-        this.mStrengthBias += itemDescriptor.getStrengthBias();
-        this.mAgilityBias += itemDescriptor.getAgilityBias();
-        this.mIntelligenceBias += itemDescriptor.getIntelligenceBias();
+    private void accumulateBiases(ItemDescriptorIndex index, int entry){
+        this.mArmourBias += index.getBias(entry, ItemDescriptorIndex.BIAS_ARMOUR);
+        this.mDamageBias += index.getBias(entry, ItemDescriptorIndex.BIAS_DAMAGE);
+        this.mStrengthBias += index.getBias(entry, ItemDescriptorIndex.BIAS_STRENGTH);
+        this.mAgilityBias += index.getBias(entry, ItemDescriptorIndex.BIAS_AGILITY);
+        this.mIntelligenceBias += index.getBias(entry, ItemDescriptorIndex.BIAS_INTELLIGENCE);
     }
 
     private void calculateStats(int itemPoints) {
@@ -0,0 +1,121 @@
+package fit3037.dmmic2.dungeonrunner;
+
+import android.annotation.SuppressLint;
+import android.content.Context;
+import android.location.LocationManager;
+import android.os.Handler;
+import android.os.Looper;
+
+import com.google.android.gms.location.FusedLocationProviderClient;
+import com.google.android.gms.location.LocationAvailability;
+import com.google.android.gms.location.LocationCallback;
+import com.google.android.gms.location.LocationRequest;
+import com.google.android.gms.location.LocationResult;
+import com.google.android.gms.location.LocationServices;
+import com.google.android.gms.tasks.OnCompleteListener;
+import com.google.android.gms.tasks.Task;
+
+import java.util.concurrent.Executor;
+
+/*
+* A LocationSource on the fused location provider from Google Play services.  Its main advantage
+* over LocationManager is batching: with a max wait time set, the GPS keeps taking fixes at the
+* requested interval, but the phone holds on to them and only wakes the app up to hand them over
+* together once the wait is up.  The app (and the CPU) then wakes once a batch instead of once a
+* fix.
+*
+* The flip side is that fixes held back when updates are removed are thrown away, so stop flushes
+* them out first and only removes the updates once they have all been delivered.
+*
+* The provider only says when it can't get a location, not why.  When it can't, and the GPS turns
+* out to be switched off in the phone's settings, that is reported once through onProviderDisabled,
+* just as ManagerLocationSource reports it.
+*
+* See:
+* https://developers.google.com/android/reference/com/google/android/gms/location/LocationRequest
+* */
+
+public class FusedLocationSource implements LocationSource {
+
+    private final FusedLocationProviderClient mClient;
+    private final LocationManager mLocationManager;
+    private final Callback mCallback;
+    // whether the GPS being off has been reported since locations were last available, only
+    // touched on the looper
+    private boolean mReportedDisabled = false;
+    // on the looper updates were last asked for on
+    private volatile Handler mHandler;
+    private volatile long mMaxWait = 0;
+
+    private final LocationCallback mLocationCallback = new LocationCallback() {
+        @Override
+        public void onLocationResult(LocationResult result) {
+            if (result != null) {
+                mCallback.onLocations(result.getLocations());
+            }
+        }
+
+        @Override
+        public void onLocationAvailability(LocationAvailability availability) {
+            if (availability.isLocationAvailable()) {
+                mReportedDisabled = false;
+            } else if (!mReportedDisabled
+                    && !mLocationManager.isProviderEnabled(LocationManager.GPS_PROVIDER)) {
+                mReportedDisabled = true;
+                mCallback.onProviderDisabled();
+            }
+        }
+    };
+
+    public FusedLocationSource(Context context, Callback callback) {
+        mClient = LocationServices.getFusedLocationProviderClient(context);
+        mLocationManager = (LocationManager) context.getApplicationContext()
+                .getSystemService(Context.LOCATION_SERVICE);
+        mCallback = callback;
+    }
+
+    @SuppressLint("MissingPermission")
+    @Override
+    public void request(long interval, float minDistance, long maxWait, Looper looper) {
+        mHandler = new Handler(looper);
+        LocationRequest request = LocationRequest.create()
+                .setPriority(LocationRequest.PRIORITY_HIGH_ACCURACY)
+                .setInterval(interval)
+                .setFastestInterval(interval)
+                .setSmallestDisplacement(minDistance)
+                .setMaxWaitTime(maxWait);
+        // a new request on the same callback replaces the old one
+        //noinspection MissingPermission
+        mClient.requestLocationUpdates(request, mLocationCallback, looper);
+        // no longer batching, so hand over what is held back now rather than when the wait is up
+        if (maxWait == 0 && mMaxWait > 0) {
+            mClient.flushLocations();
+        }
+        mMaxWait = maxWait;
+    }
+
+    @Override
+    public void stop(final Runnable onStopped) {
+        final Handler handler = mHandler;
+        if (handler == null) {
+            onStopped.run();
+            return;
+        }
+        // The flushed fixes are handed to mLocationCallback on the looper before the flush
+        // completes, so by the time the listener (on the same looper) hears of it they are all in
+        Executor looper = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                handler.post(command);
+            }
+        };
+        mClient.flushLocations().addOnCompleteListener(looper, new OnCompleteListener<Void>() {
+            @Override
+            public void onComplete(Task<Void> task) {
+                mClient.removeLocationUpdates(mLocationCallback);
+                // behind anything delivered while the updates were being removed
+                handler.post(onStopped);
+            }
+        });
+    }
+}
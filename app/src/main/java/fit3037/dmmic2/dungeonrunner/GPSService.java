@@ -1,16 +1,19 @@
 package fit3037.dmmic2.dungeonrunner;
 
-import android.annotation.SuppressLint;
 import android.app.Service;
-import android.content.Context;
 import android.content.Intent;
 import android.location.Location;
-import android.location.LocationListener;
-import android.location.LocationManager;
-import android.os.Bundle;
+import android.os.HandlerThread;
 import android.os.IBinder;
+import android.os.Process;
 import android.provider.Settings;
 import android.support.annotation.Nullable;
+import android.util.Log;
+
+import com.google.android.gms.common.ConnectionResult;
+import com.google.android.gms.common.GoogleApiAvailability;
+
+import java.util.List;
 
 /*
 * This service runs the GPS location tracking of the user.  It is implemented as a service so that
@@ -18,14 +21,33 @@ import android.support.annotation.Nullable;
 * functionality, since users will not be keeping the screen on for the duration of a whole exercise
 * session!
 *
+* Fixes come from the fused location provider where Google Play services is available, which
+* holds them back and hands them over in batches (see FusedLocationSource), or straight from the
+* GPS one at a time otherwise (see ManagerLocationSource).  Each batch is published on the
+* LocationChannel, which hands it straight to the RunPipeline to be dealt with in one go.  Fixes
+* are delivered on a background thread of this service's own, so the main thread never sees them.
+* Stopping the service (as pausing a run does) first hands over any fixes still held back, then
+* says so on the LocationChannel, so the pipeline knows when it has every fix from before the
+* pause.
+*
+* How often fixes are asked for is up to a SamplingPolicy for the dungeon being run (passed in the
+* "dungeonLevel" extra when the service is started), which looks at every fix and has updates
+* registered again whenever it wants them more or less often.  The tracker also starts the service
+* with a "trackerVisible" extra whenever it comes on or goes off screen, as fixes are only batched
+* while it is off.
+*
 * Implementing this class relied heavily on the code found in the video and github repo below:
 * https://www.youtube.com/watch?v=lvcGh2ZgHeA
 * https://github.com/miskoajkula/GPS_service
 * */
 
 public class GPSService extends Service{
-    private LocationListener listener;
-    private LocationManager locationManager;
+    private LocationSource mSource;
+    private HandlerThread mLocationThread;
+    // replaced from the main thread at each start, consulted on the location thread
+    private volatile SamplingPolicy mPolicy = SamplingPolicy.forLevel(null);
+    // set once the service is being destroyed, so the last fixes don't ask for updates again
+    private volatile boolean mStopping = false;
 
     @Nullable
     @Override
@@ -33,50 +55,86 @@ public class GPSService extends Service{
         return null;
     }
 
-    @SuppressLint("MissingPermission")
     @Override
     public void onCreate() {
 
-        listener = new LocationListener() {
+        LocationSource.Callback callback = new LocationSource.Callback() {
             @Override
-            public void onLocationChanged(Location location) {
-                Intent i = new Intent("location_update");
-                i.putExtra("coordinates", location.getLatitude() + " " +
-                        location.getLongitude() + " " + location.getAltitude());
-                sendBroadcast(i);
+            public void onLocations(List<Location> locations) {
+                LocationChannel.getInstance().publish(locations);
+                boolean changed = false;
+                for (Location location : locations) {
+                    changed |= mPolicy.onFix(location.getAccuracy(), location.getSpeed());
+                }
+                if (changed && !mStopping) {
+                    requestUpdates();
+                }
             }
 
             @Override
-            public void onStatusChanged(String s, int i, Bundle bundle) {
-
-            }
-
-            @Override
-            public void onProviderEnabled(String s) {
-
-            }
-
-            @Override
-            public void onProviderDisabled(String s) {
+            public void onProviderDisabled() {
                 Intent i = new Intent(Settings.ACTION_LOCATION_SOURCE_SETTINGS);
                 i.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
                 startActivity(i);
             }
         };
 
-        locationManager = (LocationManager) getApplicationContext().getSystemService(Context.LOCATION_SERVICE);
+        if (GoogleApiAvailability.getInstance().isGooglePlayServicesAvailable(this)
+                == ConnectionResult.SUCCESS) {
+            mSource = new FusedLocationSource(this, callback);
+        } else {
+            Log.d("GPS SERVICE", "no play services, getting fixes from the GPS directly");
+            mSource = new ManagerLocationSource(this, callback);
+        }
 
-        //noinspection MissingPermission
-        locationManager.requestLocationUpdates(LocationManager.GPS_PROVIDER,1500,0,listener);
+        mLocationThread = new HandlerThread("GPSService", Process.THREAD_PRIORITY_BACKGROUND);
+        mLocationThread.start();
+    }
+
+    @Override
+    public int onStartCommand(Intent intent, int flags, int startId) {
+        // the intent is null if the system restarted the service, in which case the policy falls
+        // back to asking for the most fixes
+        boolean changed = false;
+        if (intent == null || intent.hasExtra("dungeonLevel")) {
+            DungeonLevel level = (intent == null) ? null
+                    : (DungeonLevel) intent.getParcelableExtra("dungeonLevel");
+            mPolicy = SamplingPolicy.forLevel(level);
+            changed = true;
+        }
+        // without word from the tracker, assume it isn't showing
+        boolean trackerVisible = intent != null && intent.getBooleanExtra("trackerVisible", false);
+        changed |= mPolicy.setBatching(!trackerVisible);
+        if (changed) {
+            requestUpdates();
+        }
+        return START_STICKY;
+    }
 
+    // Ask for updates as the policy currently wants them, replacing any earlier request
+    private void requestUpdates() {
+        SamplingPolicy policy = mPolicy;
+        Log.d("GPS SERVICE", "requesting a fix every " + policy.getInterval() + "ms and " +
+                policy.getMinDistance() + "m, in batches of up to " + policy.getMaxWait() + "ms");
+        mSource.request(policy.getInterval(), policy.getMinDistance(), policy.getMaxWait(),
+                mLocationThread.getLooper());
     }
 
     @Override
     public void onDestroy() {
         super.onDestroy();
-        if(locationManager != null){
-            //noinspection MissingPermission
-            locationManager.removeUpdates(listener);
+        if (mSource == null) {
+            return;
         }
+        mStopping = true;
+        final HandlerThread thread = mLocationThread;
+        mSource.stop(new Runnable() {
+            @Override
+            public void run() {
+                // after the last fix has been published
+                LocationChannel.getInstance().publishStopped();
+                thread.quitSafely();
+            }
+        });
     }
 }
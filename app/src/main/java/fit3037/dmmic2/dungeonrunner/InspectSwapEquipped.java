@@ -27,7 +27,7 @@ public class InspectSwapEquipped extends AppCompatActivity implements
     private Equipment mCurrentEquipped;
     private EquipmentAdapter mAdapter;
     private ArrayList<Equipment> mEquipmentList;
-    private DatabaseHelper mDBHelper;
+    private DungeonRepository mRepository;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -40,13 +40,42 @@ public class InspectSwapEquipped extends AppCompatActivity implements
         getSupportActionBar().setTitle("Inspection");
 
         // Get the database handler
-        mDBHelper = new DatabaseHelper(getApplicationContext());
+        mRepository = DungeonRepository.getInstance(getApplicationContext());
 
         Intent intent = getIntent();
-        String type = intent.getStringExtra("type");
+        final String type = intent.getStringExtra("type");
+
+        mListView = (ListView) findViewById(R.id.swapToListView);
+        mListView.setOnItemLongClickListener(this);
+        mListView.setOnItemClickListener(this);
 
         // Get the currently equipped item of the relevant type
-        mCurrentEquipped = mDBHelper.getEquippedEquipmentByType(type);
+        mRepository.getEquippedEquipmentByType(type, new DungeonRepository.ResultCallback<Equipment>() {
+            @Override
+            public void onResult(Equipment equipped) {
+                showCurrentEquipped(type, equipped);
+            }
+        });
+
+        // initialise the non equipped equipment list
+        mRepository.getAllNonEquippedEquipmentByType(type,
+                new DungeonRepository.ResultCallback<ArrayList<Equipment>>() {
+                    @Override
+                    public void onResult(ArrayList<Equipment> equipment) {
+                        mEquipmentList = equipment;
+                        Log.d("INSPECT SWAP EQUIPPED", "found " + mEquipmentList.size() +
+                                " alternate items");
+
+                        // create adapter and associate it with equipment list
+                        mAdapter = new EquipmentAdapter(InspectSwapEquipped.this, mEquipmentList);
+                        mListView.setAdapter(mAdapter);
+                    }
+                });
+
+    }
+
+    private void showCurrentEquipped(String type, Equipment equipped) {
+        mCurrentEquipped = equipped;
 
         // Initialise the text views to display current equipped item data
         TextView typeView = (TextView) findViewById(R.id.equipmentTypeTextView);
@@ -67,29 +96,19 @@ public class InspectSwapEquipped extends AppCompatActivity implements
         agilityView.append(String.valueOf(mCurrentEquipped.getAgility()));
         intelligenceView.append(String.valueOf(mCurrentEquipped.getIntelligence()));
         descriptionView.append(mCurrentEquipped.getDescription());
-
-        // initialise the non equipped equipment list
-        mEquipmentList = new ArrayList<>(mDBHelper.getAllNonEquippedEquipmentByType(type));
-        Log.d("INSPECT SWAP EQUIPPED", "found " + mEquipmentList.size() +
-                " alternate items");
-
-        mListView = (ListView) findViewById(R.id.swapToListView);
-
-        // create adapter and associate it with equipment list
-        mAdapter = new EquipmentAdapter(this, mEquipmentList);
-        mListView.setOnItemLongClickListener(this);
-        mListView.setOnItemClickListener(this);
-        mListView.setAdapter(mAdapter);
-
     }
 
     // Click allows viewing of Book
     @Override
     public void onItemClick(AdapterView<?> adapterView, View view, final int position, long l) {
 
-        // Set up data for display
+        // Set up data for display, comparing against the item shown at the top of the screen
         final Equipment toEquip = (Equipment) adapterView.getItemAtPosition(position);
-        Equipment old = mDBHelper.getEquippedEquipmentByType(toEquip.getType());
+        Equipment old = mCurrentEquipped;
+        if (old == null) {
+            // still loading
+            return;
+        }
         String armourDiff = presentableStatDifference(toEquip.getArmour(), old.getArmour());
         String damageDiff = presentableStatDifference(toEquip.getDamage(), old.getDamage());
         String strengthDiff = presentableStatDifference(toEquip.getStrength(), old.getStrength());
@@ -111,11 +130,14 @@ public class InspectSwapEquipped extends AppCompatActivity implements
         builder.setPositiveButton("Yes", new DialogInterface.OnClickListener() {
             public void onClick(DialogInterface dialog, int id) {
 
-                mDBHelper.equipEquipment(toEquip.getId());
-
-                // Refresh the current activity to display the equipment that is equipped
-                finish();
-                startActivity(getIntent());
+                mRepository.equipEquipment(toEquip.getId(), new DungeonRepository.ResultCallback<Void>() {
+                    @Override
+                    public void onResult(Void result) {
+                        // Refresh the current activity to display the equipment that is equipped
+                        finish();
+                        startActivity(getIntent());
+                    }
+                });
             }
         });
         builder.setNegativeButton("No", null);
@@ -132,10 +154,15 @@ public class InspectSwapEquipped extends AppCompatActivity implements
 
         builder.setPositiveButton("Yes", new DialogInterface.OnClickListener() {
             public void onClick(DialogInterface dialog, int id) {
-                mDBHelper.removeEquipment((Equipment) adapterView.getItemAtPosition((int) l));
-                // Refresh the current activity to display the equipment that is equipped
-                finish();
-                startActivity(getIntent());
+                Equipment equipment = (Equipment) adapterView.getItemAtPosition((int) l);
+                mRepository.removeEquipment(equipment, new DungeonRepository.ResultCallback<Void>() {
+                    @Override
+                    public void onResult(Void result) {
+                        // Refresh the current activity to display the equipment that is left
+                        finish();
+                        startActivity(getIntent());
+                    }
+                });
             }
         });
         builder.setNegativeButton("No", null);
@@ -20,7 +20,7 @@ import java.util.HashMap;
 public class Inventory extends AppCompatActivity {
 
     Button mGoToDressingRoomButton;
-    private DatabaseHelper mDBHelper;
+    private DungeonRepository mRepository;
     ArrayList<Equipment> mEquippedEquipment;
     HashMap<String, Integer> mTotals;
 
@@ -33,24 +33,11 @@ public class Inventory extends AppCompatActivity {
         getSupportActionBar().setTitle("Inventory");
 
         // Get the database handler
-        mDBHelper = new DatabaseHelper(getApplicationContext());
-
-        TextView armourView = (TextView) findViewById(R.id.armourInventoryTextView);
-        TextView damageView = (TextView) findViewById(R.id.damageInventoryTextView);
-        TextView strengthView = (TextView) findViewById(R.id.strengthInventoryTextView);
-        TextView agilityView = (TextView) findViewById(R.id.agilityInventoryTextView);
-        TextView intelligenceView = (TextView) findViewById(R.id.intelligenceInventoryTextView);
+        mRepository = DungeonRepository.getInstance(getApplicationContext());
 
         mGoToDressingRoomButton  = findViewById(R.id.goToDressingRoomButton);
 
-        mEquippedEquipment = mDBHelper.getAllEquippedEquipment();
-        mTotals = sumStatType(mEquippedEquipment);
-
-        armourView.setText(String.valueOf(mTotals.get("armour")));
-        damageView.setText(String.valueOf(mTotals.get("damage")));
-        strengthView.setText(String.valueOf(mTotals.get("strength")));
-        agilityView.setText(String.valueOf(mTotals.get("agility")));
-        intelligenceView.setText(String.valueOf(mTotals.get("intelligence")));
+        // The stats themselves are filled in by onResume, which always follows onCreate
 
         // On Click: Go to the Options activity
         mGoToDressingRoomButton.setOnClickListener(new View.OnClickListener() {
@@ -87,17 +74,22 @@ public class Inventory extends AppCompatActivity {
     public void onResume() {  // After a pause OR at startup
         super.onResume();
 
-        mDBHelper = new DatabaseHelper(getApplicationContext());
+        mRepository.getAllEquippedEquipment(new DungeonRepository.ResultCallback<ArrayList<Equipment>>() {
+            @Override
+            public void onResult(ArrayList<Equipment> equipped) {
+                showTotals(equipped);
+            }
+        });
+    }
 
+    private void showTotals(ArrayList<Equipment> equipped) {
         TextView armourView = (TextView) findViewById(R.id.armourInventoryTextView);
         TextView damageView = (TextView) findViewById(R.id.damageInventoryTextView);
         TextView strengthView = (TextView) findViewById(R.id.strengthInventoryTextView);
         TextView agilityView = (TextView) findViewById(R.id.agilityInventoryTextView);
         TextView intelligenceView = (TextView) findViewById(R.id.intelligenceInventoryTextView);
 
-        mGoToDressingRoomButton  = findViewById(R.id.goToDressingRoomButton);
-
-        mEquippedEquipment = mDBHelper.getAllEquippedEquipment();
+        mEquippedEquipment = equipped;
         mTotals = sumStatType(mEquippedEquipment);
 
         armourView.setText(String.valueOf(mTotals.get("armour")));
@@ -105,7 +97,6 @@ public class Inventory extends AppCompatActivity {
         strengthView.setText(String.valueOf(mTotals.get("strength")));
         agilityView.setText(String.valueOf(mTotals.get("agility")));
         intelligenceView.setText(String.valueOf(mTotals.get("intelligence")));
-
     }
 
 }
@@ -39,6 +39,28 @@ public class ItemDescriptor implements Parcelable {
             COLUMN_INTELLIGENCE_BIAS + " INTEGER NOT NULL" +
             ")";
 
+    // Compiled insert used when bulk loading, bind arguments follow the column order above
+    public static final String INSERT_STATEMENT = "INSERT INTO "
+            + TABLE_NAME + "(" +
+            COLUMN_DESCRIPTOR + ", " +
+            COLUMN_TYPE + ", " +
+            COLUMN_MATCH + ", " +
+            COLUMN_ARMOUR_BIAS + ", " +
+            COLUMN_DAMAGE_BIAS + ", " +
+            COLUMN_STRENGTH_BIAS + ", " +
+            COLUMN_AGILITY_BIAS + ", " +
+            COLUMN_INTELLIGENCE_BIAS +
+            ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Index backing descriptor lookups by type and match (and the sorted read that builds the
+    // ItemDescriptorIndex)
+    public static final String INDEX_TYPE_MATCH = "itemDescriptors_type_match";
+    public static final String CREATE_INDEX_STATEMENT = "CREATE INDEX IF NOT EXISTS "
+            + INDEX_TYPE_MATCH + " ON " + TABLE_NAME + "(" +
+            COLUMN_TYPE + ", " +
+            COLUMN_MATCH +
+            ")";
+
     /*
     * ID:           for database purposes
     * Descriptor:   the associated word with the description,
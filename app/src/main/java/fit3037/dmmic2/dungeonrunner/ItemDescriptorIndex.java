@@ -0,0 +1,169 @@
+package fit3037.dmmic2.dungeonrunner;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+
+import java.util.HashMap;
+import java.util.Random;
+
+/*
+* A read-only, in-memory copy of the itemDescriptors table, used by Equipment to name rewards
+* without going to the database.  It is built with a single query the first time it is needed and
+* then kept for the life of the process (DatabaseHelper throws it away if the table is changed).
+*
+* Entries are sorted by (type, match) and stored as plain arrays, so every (type, match) pair is
+* just a contiguous range of entry positions:
+*
+*       mDescriptors[e]         the word itself, e.g. "Pauldrons"
+*       mBiases[e * 5 + s]      bias towards stat s, in the order armour, damage, strength,
+*                               agility, intelligence (see the BIAS_ constants)
+*       mRangeStart[k]          first entry for key k, where k = typeCode * mMatchCount + matchCode
+*       mRangeEnd[k]            one past the last entry for key k
+*
+* Picking a random descriptor is then a couple of map lookups to turn the strings into codes, and
+* a walk over at most a handful of ranges.  Rather than handing back ItemDescriptor objects, a
+* pick returns an entry position which the getters below read from.
+* */
+
+public class ItemDescriptorIndex {
+
+    public static final int BIAS_ARMOUR = 0;
+    public static final int BIAS_DAMAGE = 1;
+    public static final int BIAS_STRENGTH = 2;
+    public static final int BIAS_AGILITY = 3;
+    public static final int BIAS_INTELLIGENCE = 4;
+    private static final int BIAS_COUNT = 5;
+
+    // Every descriptor, sorted so that each (type, match) pair comes back as one run of rows
+    static final String QUERY_ALL_SORTED = "SELECT " +
+            ItemDescriptor.COLUMN_DESCRIPTOR + ", " +
+            ItemDescriptor.COLUMN_TYPE + ", " +
+            ItemDescriptor.COLUMN_MATCH + ", " +
+            ItemDescriptor.COLUMN_ARMOUR_BIAS + ", " +
+            ItemDescriptor.COLUMN_DAMAGE_BIAS + ", " +
+            ItemDescriptor.COLUMN_STRENGTH_BIAS + ", " +
+            ItemDescriptor.COLUMN_AGILITY_BIAS + ", " +
+            ItemDescriptor.COLUMN_INTELLIGENCE_BIAS +
+            " FROM " + ItemDescriptor.TABLE_NAME +
+            " ORDER BY " + ItemDescriptor.COLUMN_TYPE + ", " + ItemDescriptor.COLUMN_MATCH;
+
+    private static ItemDescriptorIndex sInstance;
+
+    private final String[] mDescriptors;
+    private final int[] mBiases;
+    private final int[] mRangeStart;
+    private final int[] mRangeEnd;
+    private final HashMap<String, Integer> mTypeCodes = new HashMap<>();
+    private final HashMap<String, Integer> mMatchCodes = new HashMap<>();
+    private final int mMatchCount;
+
+    private final Random mRandom = new Random();
+
+    public static synchronized ItemDescriptorIndex getInstance(Context context) {
+        if (sInstance == null) {
+            long start = StartupTiming.now();
+            sInstance = new ItemDescriptorIndex(DatabaseHelper.getInstance(context));
+            StartupTiming.report("building item descriptor index of " +
+                    sInstance.mDescriptors.length + " entries", start);
+        }
+        return sInstance;
+    }
+
+    // Called by DatabaseHelper whenever the itemDescriptors table changes, so the next lookup
+    // rebuilds from the new contents
+    public static synchronized void invalidate() {
+        sInstance = null;
+    }
+
+    private ItemDescriptorIndex(DatabaseHelper dbHelper) {
+        SQLiteDatabase db = dbHelper.openDatabase();
+        Cursor cursor = db.rawQuery(QUERY_ALL_SORTED, null);
+
+        int count = cursor.getCount();
+        mDescriptors = new String[count];
+        mBiases = new int[count * BIAS_COUNT];
+        int[] entryTypes = new int[count];
+        int[] entryMatches = new int[count];
+
+        int e = 0;
+        while (cursor.moveToNext()) {
+            mDescriptors[e] = cursor.getString(0);
+            entryTypes[e] = codeFor(mTypeCodes, cursor.getString(1));
+            entryMatches[e] = codeFor(mMatchCodes, cursor.getString(2));
+            for (int s = 0; s < BIAS_COUNT; s++) {
+                mBiases[e * BIAS_COUNT + s] = cursor.getInt(3 + s);
+            }
+            e += 1;
+        }
+        cursor.close();
+        dbHelper.closeDatabase();
+
+        // Since the rows came back sorted, each (type, match) key covers one contiguous range
+        mMatchCount = mMatchCodes.size();
+        int keys = mTypeCodes.size() * mMatchCount;
+        mRangeStart = new int[keys];
+        mRangeEnd = new int[keys];
+        for (int i = 0; i < count; i++) {
+            int key = entryTypes[i] * mMatchCount + entryMatches[i];
+            if (mRangeEnd[key] == 0) {
+                mRangeStart[key] = i;
+            }
+            mRangeEnd[key] = i + 1;
+        }
+    }
+
+    private static int codeFor(HashMap<String, Integer> codes, String value) {
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = codes.size();
+            codes.put(value, code);
+        }
+        return code;
+    }
+
+    // Pick an entry at random from all those of the given type that match any of the given
+    // matches, with every matching entry equally likely.  Returns -1 if nothing matches.
+    public int pickRandom(String type, String[] matches) {
+        Integer typeCode = mTypeCodes.get(type);
+        if (typeCode == null) {
+            Log.d("DESCRIPTOR INDEX", "no descriptors of type " + type);
+            return -1;
+        }
+
+        int total = 0;
+        for (String match : matches) {
+            total += rangeSize(typeCode, match);
+        }
+        if (total == 0) {
+            Log.d("DESCRIPTOR INDEX", "no descriptors of type " + type + " for the given matches");
+            return -1;
+        }
+
+        int n = mRandom.nextInt(total);
+        for (String match : matches) {
+            int size = rangeSize(typeCode, match);
+            if (n < size) {
+                return mRangeStart[typeCode * mMatchCount + mMatchCodes.get(match)] + n;
+            }
+            n -= size;
+        }
+        return -1;
+    }
+
+    private int rangeSize(int typeCode, String match) {
+        Integer matchCode = mMatchCodes.get(match);
+        if (matchCode == null) {
+            return 0;
+        }
+        int key = typeCode * mMatchCount + matchCode;
+        return mRangeEnd[key] - mRangeStart[key];
+    }
+
+    // Getter methods, taking an entry position returned by pickRandom
+    public String getDescriptor(int entry) { return mDescriptors[entry]; }
+    public int getBias(int entry, int stat) { return mBiases[entry * BIAS_COUNT + stat]; }
+    public int size() { return mDescriptors.length; }
+
+}
@@ -0,0 +1,167 @@
+package fit3037.dmmic2.dungeonrunner;
+
+/*
+* The default LocationFilter: a simple Kalman filter over position, along with gating on accuracy
+* and rejection of outliers.
+*
+* Accuracy gating:      Fixes reporting an accuracy worse than MAX_ACCURACY metres are turned down
+*                       outright.  These are usually the first few fixes while the GPS is still
+*                       getting a lock.
+*
+* Outlier rejection:    A fix further from the current estimate than anyone could have run since
+*                       the last fix (MAX_SPEED, plus the uncertainty in both positions) is turned
+*                       down as well.  If MAX_REJECTIONS fixes in a row are turned down this way the
+*                       estimate is probably what's wrong (e.g. it locked onto a reflection), so the
+*                       filter starts again from the next fix.
+*
+* Smoothing:            Between fixes the estimate is carried along at the speed and bearing the GPS
+*                       reports (measured from Doppler shift, so much steadier than the positions),
+*                       and its uncertainty grows by how far off those could be.  Each accepted fix
+*                       then moves the estimate towards it by the Kalman gain, which weighs that
+*                       uncertainty against the fix's reported accuracy.  Running, the estimate
+*                       follows the route closely without chasing the noise in each fix.
+*
+* Holding still:        While the reported speed is below MOVING_SPEED, fixes near the estimate are
+*                       turned down, so GPS jitter while standing at the lights no longer adds up
+*                       into distance.  A fix well away from the estimate is still taken, in case
+*                       the GPS has no speed to give.
+*
+* Altitude is smoothed the same way but on its own, since GPS altitude is much noisier and changes
+* much more slowly.  Both use the well known single variance simplification of a full Kalman
+* filter, so the whole state is a handful of numbers, see:
+* https://stackoverflow.com/questions/1134579/smooth-gps-data
+* */
+
+public class KalmanLocationFilter implements LocationFilter {
+
+    // Worst reported accuracy (m) still worth using
+    static final float MAX_ACCURACY = 30;
+    // Assumed accuracy (m) for fixes that don't report one
+    static final float DEFAULT_ACCURACY = 10;
+    // Fastest anyone is expected to move (m/s), a little quicker than a sprinter
+    static final double MAX_SPEED = 12;
+    // Slowest reported speed (m/s) taken as moving, well under walking pace
+    static final double MOVING_SPEED = 0.6;
+    // How far (in multiples of its accuracy) a fix has to be from the estimate to count as moving
+    // when the GPS says the runner is standing still
+    static final double STILL_RADIUS_FACTOR = 2;
+    // How far off (m/s) the reported speed and bearing are taken to be
+    static final double VELOCITY_ERROR = 1;
+    // GPS altitude is a good deal worse than the reported (horizontal) accuracy, and nobody climbs
+    // quickly on foot (m/s)
+    static final double VERTICAL_ERROR_FACTOR = 1.5;
+    static final double CLIMB_ERROR = 0.3;
+    // How many outliers in a row before giving up on the estimate
+    static final int MAX_REJECTIONS = 5;
+
+    private static final double METRES_PER_DEGREE = 111320;
+
+    private double mLatitude;
+    private double mLongitude;
+    private double mAltitude;
+    private long mTime;
+    // Variance of the estimate (m^2), negative when there is no estimate yet
+    private double mVariance = -1;
+    private double mAltitudeVariance;
+    private int mRejections = 0;
+
+    @Override
+    public boolean accept(double latitude, double longitude, double altitude, long time,
+            float accuracy, float speed, float bearing) {
+        if (accuracy <= 0) {
+            accuracy = DEFAULT_ACCURACY;
+        }
+        if (accuracy > MAX_ACCURACY) {
+            return false;
+        }
+        double measurementVariance = (double) accuracy * accuracy;
+
+        if (mVariance < 0) {
+            start(latitude, longitude, altitude, time, measurementVariance);
+            return true;
+        }
+
+        double seconds = Math.max(0, (time - mTime) / 1000.0);
+        double distance = distanceTo(latitude, longitude);
+        double reach = MAX_SPEED * seconds + 2 * (accuracy + Math.sqrt(mVariance));
+        if (distance > reach) {
+            mRejections += 1;
+            if (mRejections >= MAX_REJECTIONS) {
+                mVariance = -1;
+            }
+            return false;
+        }
+        mRejections = 0;
+
+        // hold: while the GPS says the runner isn't moving, fixes scattered around the estimate
+        // are just jitter, unless one lands too far away for that
+        boolean moving = speed >= MOVING_SPEED;
+        if (!moving && distance <= STILL_RADIUS_FACTOR * accuracy) {
+            mTime = time;
+            return false;
+        }
+
+        // predict: carry the estimate along at the reported speed and bearing, give or take
+        // VELOCITY_ERROR in any direction.  Below MOVING_SPEED the reported bearing is meaningless,
+        // so the estimate stays put.
+        if (moving) {
+            double metres = speed * seconds;
+            double bearingRadians = Math.toRadians(bearing);
+            mLatitude += metres * Math.cos(bearingRadians) / METRES_PER_DEGREE;
+            mLongitude += metres * Math.sin(bearingRadians)
+                    / (METRES_PER_DEGREE * Math.cos(Math.toRadians(mLatitude)));
+        }
+        double step = VELOCITY_ERROR * seconds;
+        mVariance += step * step;
+        double climb = CLIMB_ERROR * seconds;
+        mAltitudeVariance += climb * climb;
+        mTime = time;
+
+        // update: move towards the fix by the gain
+        double gain = mVariance / (mVariance + measurementVariance);
+        mLatitude += gain * (latitude - mLatitude);
+        mLongitude += gain * (longitude - mLongitude);
+        mVariance = (1 - gain) * mVariance;
+
+        double verticalVariance =
+                VERTICAL_ERROR_FACTOR * VERTICAL_ERROR_FACTOR * measurementVariance;
+        double altitudeGain = mAltitudeVariance / (mAltitudeVariance + verticalVariance);
+        mAltitude += altitudeGain * (altitude - mAltitude);
+        mAltitudeVariance = (1 - altitudeGain) * mAltitudeVariance;
+        return true;
+    }
+
+    @Override
+    public double getLatitude() { return mLatitude; }
+
+    @Override
+    public double getLongitude() { return mLongitude; }
+
+    @Override
+    public double getAltitude() { return mAltitude; }
+
+    @Override
+    public void reset() {
+        mVariance = -1;
+        mRejections = 0;
+    }
+
+    private void start(double latitude, double longitude, double altitude, long time,
+            double variance) {
+        mLatitude = latitude;
+        mLongitude = longitude;
+        mAltitude = altitude;
+        mTime = time;
+        mVariance = variance;
+        mAltitudeVariance = VERTICAL_ERROR_FACTOR * VERTICAL_ERROR_FACTOR * variance;
+        mRejections = 0;
+    }
+
+    // Flat earth distance (m) from the estimate, plenty for the few metres between fixes
+    private double distanceTo(double latitude, double longitude) {
+        double dy = (latitude - mLatitude) * METRES_PER_DEGREE;
+        double dx = (longitude - mLongitude) * METRES_PER_DEGREE
+                * Math.cos(Math.toRadians(mLatitude));
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+}
@@ -0,0 +1,53 @@
+package fit3037.dmmic2.dungeonrunner;
+
+import android.location.Location;
+
+import java.util.List;
+
+/*
+* A run of fixes delivered together (see FusedLocationSource), oldest first, kept as parallel
+* primitive arrays like TrackBuffer.  The units are the same as for a single fix, see
+* LocationChannel.LocationSampleListener.
+* */
+
+public class LocationBatch {
+
+    private final double[] mLatitudes;
+    private final double[] mLongitudes;
+    private final double[] mAltitudes;
+    private final long[] mTimes;
+    private final float[] mAccuracies;
+    private final float[] mSpeeds;
+    private final float[] mBearings;
+
+    public LocationBatch(List<Location> locations) {
+        int size = locations.size();
+        mLatitudes = new double[size];
+        mLongitudes = new double[size];
+        mAltitudes = new double[size];
+        mTimes = new long[size];
+        mAccuracies = new float[size];
+        mSpeeds = new float[size];
+        mBearings = new float[size];
+        for (int i = 0; i < size; i++) {
+            Location location = locations.get(i);
+            mLatitudes[i] = location.getLatitude();
+            mLongitudes[i] = location.getLongitude();
+            mAltitudes[i] = location.getAltitude();
+            mTimes[i] = location.getTime();
+            mAccuracies[i] = location.getAccuracy();
+            mSpeeds[i] = location.getSpeed();
+            mBearings[i] = location.getBearing();
+        }
+    }
+
+    // Getter Methods
+    public int size() { return mLatitudes.length; }
+    public double getLatitude(int index) { return mLatitudes[index]; }
+    public double getLongitude(int index) { return mLongitudes[index]; }
+    public double getAltitude(int index) { return mAltitudes[index]; }
+    public long getTime(int index) { return mTimes[index]; }
+    public float getAccuracy(int index) { return mAccuracies[index]; }
+    public float getSpeed(int index) { return mSpeeds[index]; }
+    public float getBearing(int index) { return mBearings[index]; }
+}
@@ -0,0 +1,85 @@
+package fit3037.dmmic2.dungeonrunner;
+
+import android.location.Location;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/*
+* Carries location fixes from GPSService to whoever is listening (the RunPipeline) within the
+* app's own process.  Fixes are handed over as plain numbers by a direct method call, on the thread
+* the fix arrived on (a background thread of GPSService's), so listeners must be thread safe and
+* shouldn't hold that thread up; RunPipeline just queues each fix onto its own thread.  There is
+* no broadcast, Intent or string in between, so there is nothing to format or parse per fix and no
+* precision is lost.  Fixes that arrive together are passed on together as a LocationBatch.
+*
+* Listeners are kept in a copy-on-write list, as they are added and removed rarely but walked on
+* every fix.
+* */
+
+public class LocationChannel {
+
+    // Receives every fix published on the channel
+    public interface LocationSampleListener {
+        // time is milliseconds since the epoch, accuracy is in metres (0 if unknown), speed in
+        // metres per second and bearing in degrees (both 0 if unknown)
+        void onLocationSample(double latitude, double longitude, double altitude, long time,
+                float accuracy, float speed, float bearing);
+        // Several fixes that arrived together, to be dealt with in one go
+        void onLocationBatch(LocationBatch batch);
+        // GPSService has stopped, and every fix it had has been published before this
+        void onLocationsStopped();
+    }
+
+    private static LocationChannel sInstance;
+
+    private CopyOnWriteArrayList<LocationSampleListener> mListeners =
+            new CopyOnWriteArrayList<LocationSampleListener>();
+
+    public static synchronized LocationChannel getInstance() {
+        if (sInstance == null) {
+            sInstance = new LocationChannel();
+        }
+        return sInstance;
+    }
+
+    private LocationChannel() { }
+
+    public void register(LocationSampleListener listener) {
+        mListeners.addIfAbsent(listener);
+    }
+
+    public void unregister(LocationSampleListener listener) {
+        mListeners.remove(listener);
+    }
+
+    public void publish(List<Location> locations) {
+        if (locations.size() == 1) {
+            publish(locations.get(0));
+            return;
+        }
+        LocationBatch batch = new LocationBatch(locations);
+        for (LocationSampleListener listener : mListeners) {
+            listener.onLocationBatch(batch);
+        }
+    }
+
+    public void publish(Location location) {
+        publish(location.getLatitude(), location.getLongitude(), location.getAltitude(),
+                location.getTime(), location.getAccuracy(), location.getSpeed(),
+                location.getBearing());
+    }
+
+    public void publish(double latitude, double longitude, double altitude, long time,
+            float accuracy, float speed, float bearing) {
+        for (LocationSampleListener listener : mListeners) {
+            listener.onLocationSample(latitude, longitude, altitude, time, accuracy, speed, bearing);
+        }
+    }
+
+    public void publishStopped() {
+        for (LocationSampleListener listener : mListeners) {
+            listener.onLocationsStopped();
+        }
+    }
+}
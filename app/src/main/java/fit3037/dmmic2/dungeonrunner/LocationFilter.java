@@ -0,0 +1,25 @@
+package fit3037.dmmic2.dungeonrunner;
+
+/*
+* A stage of the RunPipeline that every fix goes through before it counts towards the distance or
+* gets drawn on the map.  A filter can turn a fix down altogether (too inaccurate, or an obvious
+* jump), or accept it and give back a cleaned up position to use instead.
+*
+* Filters are fed one fix at a time, on the pipeline thread, and should take constant time and
+* memory per fix however long the run goes on.
+* */
+
+public interface LocationFilter {
+
+    // Offer the filter a fix (see LocationChannel.LocationSampleListener for the units).  Returns
+    // true if it should be used, in which case the position to use is given by the getters below.
+    boolean accept(double latitude, double longitude, double altitude, long time, float accuracy,
+            float speed, float bearing);
+
+    double getLatitude();
+    double getLongitude();
+    double getAltitude();
+
+    // Forget everything seen so far, e.g. when the run is paused and may resume somewhere else
+    void reset();
+}
@@ -0,0 +1,32 @@
+package fit3037.dmmic2.dungeonrunner;
+
+import android.location.Location;
+import android.os.Looper;
+
+import java.util.List;
+
+/*
+* Somewhere GPSService can get fixes from.  FusedLocationSource (Google Play services) delivers
+* them in batches; ManagerLocationSource (the platform LocationManager) is the fallback for phones
+* without Play services, and delivers them one at a time.
+* */
+
+public interface LocationSource {
+
+    // Everything here is called on the looper given to request
+    interface Callback {
+        // One or more fixes, oldest first
+        void onLocations(List<Location> locations);
+        // Location has been switched off in the phone's settings
+        void onProviderDisabled();
+    }
+
+    // Ask for a fix every interval (ms), once the phone has moved minDistance (m).  Fixes may be
+    // held back and delivered together for up to maxWait (ms), if the source can.  Replaces any
+    // earlier request.
+    void request(long interval, float minDistance, long maxWait, Looper looper);
+
+    // Stop asking for fixes.  Any the source is still holding back are handed over first, and
+    // onStopped is run on the looper after the last of them.
+    void stop(Runnable onStopped);
+}
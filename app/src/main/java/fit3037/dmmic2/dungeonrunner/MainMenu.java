@@ -1,5 +1,7 @@
 package fit3037.dmmic2.dungeonrunner;
 
+import android.app.AlertDialog;
+import android.content.DialogInterface;
 import android.content.Intent;
 import android.os.Bundle;
 import android.support.v7.app.AppCompatActivity;
@@ -9,7 +11,7 @@ import android.widget.Button;
 
 /*
 * This is the Main Menu activity, that provides users with various buttons to navigate the
-* application.  It also performs some data initialisation required for other activities.
+* application.
 * */
 
 public class MainMenu extends AppCompatActivity {
@@ -19,18 +21,12 @@ public class MainMenu extends AppCompatActivity {
     Button mGoToInventoryButton;
     Button mGoToOptionsButton;
     Button mGoToAboutButton;
-    private DatabaseHelper mDBHelper;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main_menu);
 
-        // On app startup, if the databases are empty, then populate them!
-        mDBHelper = new DatabaseHelper(getApplicationContext());
-        mDBHelper.initializeEquipment();
-        mDBHelper.initializeItemDescriptors();
-
         Toolbar toolbar = (Toolbar) findViewById(R.id.toolbar);
         setSupportActionBar(toolbar);
         getSupportActionBar().setTitle("Main Menu");
@@ -86,6 +82,57 @@ public class MainMenu extends AppCompatActivity {
             }
         });
 
+        // If the app was killed part way through a run last time, offer to finish it
+        RunJournal.recoverInBackground(this,
+                new DungeonRepository.ResultCallback<RunJournal.RecoveredRun>() {
+            @Override
+            public void onResult(RunJournal.RecoveredRun run) {
+                if (run != null && !isFinishing()) {
+                    offerToFinishRun(run);
+                }
+            }
+        });
+
+    }
+
+    // Ask whether to finish an interrupted run with what was recorded of it, which sends it on to
+    // Dungeon Results just as the Finish button on the tracker would
+    private void offerToFinishRun(final RunJournal.RecoveredRun run) {
+        new AlertDialog.Builder(MainMenu.this)
+                .setTitle("Unfinished run")
+                .setMessage("Your run of " + run.getLevel().getName() + " was interrupted. " +
+                        "Finish it with what was recorded?")
+                .setCancelable(false)
+                .setPositiveButton("Finish", new DialogInterface.OnClickListener() {
+                    @Override
+                    public void onClick(DialogInterface dialog, int which) {
+                        OutcomeEvaluator outcome = new OutcomeEvaluator(run.getLevel());
+                        outcome.update(run.getElapsedMillis(), run.getDistance());
+                        Intent newIntent = new Intent(MainMenu.this, DungeonResults.class);
+                        newIntent.putExtra("finalTime",
+                                DungeonResults.intToDisplayTimeConverter(outcome.getTime()));
+                        newIntent.putExtra("finalDistance", outcome.getDistance());
+                        newIntent.putExtra("outcome", outcome.getOutcome());
+                        newIntent.putExtra("trackId", TrackStore.getInstance().put(run.getTrack()));
+                        newIntent.putExtra("dungeonSelection", run.getLevel());
+                        startActivity(newIntent);
+                    }
+                })
+                .setNegativeButton("Discard", new DialogInterface.OnClickListener() {
+                    @Override
+                    public void onClick(DialogInterface dialog, int which) {
+                        RunJournal.discard(getApplicationContext());
+                    }
+                })
+                .show();
+    }
+
+    @Override
+    public void onWindowFocusChanged(boolean hasFocus) {
+        super.onWindowFocusChanged(hasFocus);
+        if (hasFocus) {
+            StartupTiming.reportFirstFrame("Main Menu");
+        }
     }
 
 }
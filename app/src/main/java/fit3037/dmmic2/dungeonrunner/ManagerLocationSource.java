@@ -0,0 +1,76 @@
+package fit3037.dmmic2.dungeonrunner;
+
+import android.annotation.SuppressLint;
+import android.content.Context;
+import android.location.Location;
+import android.location.LocationListener;
+import android.location.LocationManager;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.Collections;
+
+/*
+* A LocationSource straight from the phone's GPS through LocationManager, one fix at a time.  This
+* is how GPSService always got its fixes, and is kept for phones without Google Play services.
+* There's no batching here, so maxWait is ignored.
+* */
+
+public class ManagerLocationSource implements LocationSource {
+
+    private final LocationManager mLocationManager;
+    private final Callback mCallback;
+    // on the looper updates were last asked for on
+    private volatile Handler mHandler;
+
+    private final LocationListener mListener = new LocationListener() {
+        @Override
+        public void onLocationChanged(Location location) {
+            mCallback.onLocations(Collections.singletonList(location));
+        }
+
+        @Override
+        public void onStatusChanged(String s, int i, Bundle bundle) {
+
+        }
+
+        @Override
+        public void onProviderEnabled(String s) {
+
+        }
+
+        @Override
+        public void onProviderDisabled(String s) {
+            mCallback.onProviderDisabled();
+        }
+    };
+
+    public ManagerLocationSource(Context context, Callback callback) {
+        mLocationManager = (LocationManager) context.getApplicationContext()
+                .getSystemService(Context.LOCATION_SERVICE);
+        mCallback = callback;
+    }
+
+    @SuppressLint("MissingPermission")
+    @Override
+    public void request(long interval, float minDistance, long maxWait, Looper looper) {
+        mHandler = new Handler(looper);
+        // a new request on the same listener replaces the old one
+        //noinspection MissingPermission
+        mLocationManager.requestLocationUpdates(LocationManager.GPS_PROVIDER, interval,
+                minDistance, mListener, looper);
+    }
+
+    @Override
+    public void stop(Runnable onStopped) {
+        // nothing is held back, but a fix may already be waiting on the looper
+        mLocationManager.removeUpdates(mListener);
+        Handler handler = mHandler;
+        if (handler == null) {
+            onStopped.run();
+        } else {
+            handler.post(onStopped);
+        }
+    }
+}
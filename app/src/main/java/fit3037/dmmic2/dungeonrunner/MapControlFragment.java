@@ -4,8 +4,8 @@ package fit3037.dmmic2.dungeonrunner;
 import android.app.AlertDialog;
 import android.app.Dialog;
 import android.content.DialogInterface;
-import android.graphics.Color;
 import android.os.Bundle;
+import android.util.DisplayMetrics;
 
 import android.support.v4.app.Fragment;
 import android.view.LayoutInflater;
@@ -18,6 +18,7 @@ import com.google.android.gms.maps.GoogleMap;
 import com.google.android.gms.maps.OnMapReadyCallback;
 
 import com.google.android.gms.maps.SupportMapFragment;
+import com.google.android.gms.maps.model.CameraPosition;
 import com.google.android.gms.maps.model.LatLng;
 import com.google.android.gms.maps.model.Polyline;
 import com.google.android.gms.maps.model.PolylineOptions;
@@ -25,33 +26,80 @@ import com.google.android.gms.maps.model.PolylineOptions;
 import java.util.ArrayList;
 
 /*
-* This class supports the map that is viewed on the Dungeon Results screen.
+* This class supports the map that is viewed on the Dungeon Results screen.  The track to draw is
+* given as an id in the TrackStore, kept in the fragment's arguments so it is still there if the
+* fragment is recreated, along with the track's stored levels of detail if it has any.  Whenever
+* the camera settles the map shows the coarsest level that still looks right at that zoom (see
+* TrackDetailLevels), so a whole marathon on screen is only a few hundred points.
+*
+* A stored track can instead be streamed in with streamTrack once the fragment is up, so the map
+* can start up while the track is still being read.  The camera goes to the start, and the route is
+* drawn a piece at a time as it is decoded (see TrackRenderer.streamInBackground), until the whole
+* track is in and it switches to its levels of detail.
+*
+* The camera frames the whole route from its TrackBounds, which the track already has (or the
+* record had stored), so no points need looking at to place it.
 * */
 
 
 public class MapControlFragment extends Fragment implements OnMapReadyCallback,
-        GoogleMap.OnMapLongClickListener{
+        GoogleMap.OnMapLongClickListener, GoogleMap.OnCameraIdleListener {
 
     private GoogleMap mMap;
+    private static final String ARG_TRACK_ID = "trackId";
+    // space left around a framed route, and the closest the camera goes in to frame one
+    private static final int FIT_PADDING_DP = 32;
+    private static final float MAX_FIT_ZOOM = 17;
+    private static final String ARG_DETAIL_LEVELS = "detailLevels";
+
     private OnMapClicked mListener;
-    private ArrayList<LatLng> mSavedLocations;
-    private ArrayList<Integer> mSkipList;
+    private Track mTrack;
+    private byte[] mDetailLevels;
+    private TrackBounds mBounds;
+    // the lines for each level of detail once built, and the ones on the map at the moment
+    private TrackRenderer.Rendering mRendering;
+    private int mShownLevel = -1;
+    private ArrayList<Polyline> mShownLines = new ArrayList<Polyline>();
     private LatLng mCurrentLoc;
+    // bumped every time the track is drawn, so only the latest lines to be built are added
+    private int mRenderGeneration = 0;
+    // a track being streamed in: its points so far, by stretch, and the lines drawn for them
+    private boolean mStreaming = false;
+    private ArrayList<ArrayList<LatLng>> mStreamedStretches = new ArrayList<ArrayList<LatLng>>();
+    private ArrayList<Polyline> mStreamedLines = new ArrayList<Polyline>();
+    private boolean mCameraOnTrack = false;
 
 
 
     public MapControlFragment() {
-        mSavedLocations = new ArrayList<>();
+        mTrack = new TrackBuffer();
         // if nothing gets found, go to valhalla (monash caufield)
         mCurrentLoc = new LatLng(-37.8770, 145.0443);
     }
 
 
-    public void initFragment(OnMapClicked listener,
-                             ArrayList<LatLng> locations, ArrayList<Integer> skipList) {
+    // detailLevels are as stored with a record (see TrackDetailLevels), or null to work them out
+    // from the track
+    public void initFragment(OnMapClicked listener, long trackId, byte[] detailLevels) {
         mListener = listener;
-        mSavedLocations = locations;
-        mSkipList = skipList;
+        Bundle arguments = new Bundle();
+        arguments.putLong(ARG_TRACK_ID, trackId);
+        arguments.putByteArray(ARG_DETAIL_LEVELS, detailLevels);
+        setArguments(arguments);
+    }
+
+    @Override
+    public void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        if (getArguments() != null) {
+            Track track = TrackStore.getInstance().get(
+                    getArguments().getLong(ARG_TRACK_ID, TrackStore.NO_TRACK));
+            // an empty map is all that can be shown if the track has gone
+            if (track != null) {
+                mTrack = track;
+                mDetailLevels = getArguments().getByteArray(ARG_DETAIL_LEVELS);
+            }
+        }
     }
 
     @Override
@@ -67,72 +115,173 @@ public class MapControlFragment extends Fragment implements OnMapReadyCallback,
 
     @Override
     public void onMapReady(GoogleMap googleMap) {
-        LatLng start;
-        try {
-            start = mSavedLocations.get(0);
-        }
-        catch (IndexOutOfBoundsException e) {
-            start = mCurrentLoc;
-        }
-
         mMap = googleMap;
         mMap.setOnMapLongClickListener(this);
-        mMap.moveCamera(CameraUpdateFactory.newLatLngZoom(
-                start, 15));
-        updateMapMarkers();
-    }
+        mMap.setOnCameraIdleListener(this);
+        mCameraOnTrack = false;
+        placeCameraOnTrack();
+        if (!mCameraOnTrack) {
+            mMap.moveCamera(CameraUpdateFactory.newLatLngZoom(mCurrentLoc, 15));
+        }
 
+        if (mRendering != null) {
+            // back after the view was destroyed, the lines are still good
+            mShownLevel = -1;
+            showLevelForCamera();
+        } else if (mStreaming) {
+            for (ArrayList<LatLng> stretch : mStreamedStretches) {
+                mStreamedLines.add(mMap.addPolyline(TrackRenderer.line(stretch)));
+            }
+        } else {
+            updateMapMarkers();
+        }
+    }
 
-    public void updateMapMarkers() {
-        // -1 is used here as a no skip scenario holder
-        int currentSkipIndex = -1;
-        int currentSkipValue = -1;
-
-        // if there are points to skip drawing, prepare to use them
-        if (mSkipList.size() != 0){
-            currentSkipIndex = 0;
-            currentSkipValue = mSkipList.get(0);
+    // Frame the whole route, once there is a map and a track.  A streamed track without stored
+    // bounds can only go to its start until all of it is in.
+    private void placeCameraOnTrack() {
+        if (mMap == null || mCameraOnTrack) {
+            return;
         }
+        TrackBounds bounds = (mBounds != null) ? mBounds : mTrack.getBounds();
+        if (bounds != null) {
+            fitCamera(bounds);
+        } else if (!mStreamedStretches.isEmpty()) {
+            mMap.moveCamera(CameraUpdateFactory.newLatLngZoom(
+                    mStreamedStretches.get(0).get(0), 15));
+        } else {
+            return;
+        }
+        mCameraOnTrack = true;
+    }
 
-        if (mMap != null) {
-            mMap.clear();
+    private void fitCamera(TrackBounds bounds) {
+        // before its first layout the view has no size, so go by the screen instead
+        DisplayMetrics metrics = getResources().getDisplayMetrics();
+        View view = getView();
+        boolean laidOut = view != null && view.getWidth() > 0 && view.getHeight() > 0;
+        int width = laidOut ? view.getWidth() : metrics.widthPixels;
+        int height = laidOut ? view.getHeight() : metrics.heightPixels;
+        mMap.moveCamera(CameraUpdateFactory.newLatLngBounds(bounds.toLatLngBounds(), width,
+                height, Math.round(FIT_PADDING_DP * metrics.density)));
+        // a run that barely went anywhere would otherwise be as close in as the map goes
+        if (mMap.getCameraPosition().zoom > MAX_FIT_ZOOM) {
+            mMap.moveCamera(CameraUpdateFactory.newLatLngZoom(bounds.getCentroid(),
+                    MAX_FIT_ZOOM));
+        }
+    }
 
-            /*
-            * Some snippets here from:
-            * https://stackoverflow.com/questions/16311076/how-to-dynamically-add-polylines-from-an-arraylist/25978663
-            * */
+    // Draw track (as stored, see TrackCodec) while it is decoded in the background, with its
+    // stored detailLevels and bounds, or null to work them out
+    public void streamTrack(final byte[] track, final byte[] detailLevels, TrackBounds bounds) {
+        final int generation = ++mRenderGeneration;
+        mStreaming = true;
+        mBounds = bounds;
+        placeCameraOnTrack();
+        TrackRenderer.streamInBackground(track, detailLevels,
+                new TrackRenderer.StreamListener() {
+                    @Override
+                    public void onPoints(ArrayList<ArrayList<LatLng>> pieces,
+                            boolean continuesLast) {
+                        if (generation != mRenderGeneration) {
+                            return;
+                        }
+                        for (int i = 0; i < pieces.size(); i++) {
+                            if (i == 0 && continuesLast) {
+                                int last = mStreamedStretches.size() - 1;
+                                mStreamedStretches.get(last).addAll(pieces.get(0));
+                                if (mMap != null) {
+                                    mStreamedLines.get(last).setPoints(
+                                            mStreamedStretches.get(last));
+                                }
+                            } else {
+                                mStreamedStretches.add(pieces.get(i));
+                                if (mMap != null) {
+                                    mStreamedLines.add(
+                                            mMap.addPolyline(TrackRenderer.line(pieces.get(i))));
+                                }
+                            }
+                        }
+                        placeCameraOnTrack();
+                    }
 
-            for (int i = 0; i < mSavedLocations.size() - 1; i++) {
+                    @Override
+                    public void onRendered(Track decoded, TrackRenderer.Rendering rendering) {
+                        if (generation != mRenderGeneration) {
+                            return;
+                        }
+                        mStreaming = false;
+                        mTrack = decoded;
+                        mDetailLevels = detailLevels;
+                        for (Polyline line : mStreamedLines) {
+                            line.remove();
+                        }
+                        mStreamedLines.clear();
+                        mStreamedStretches.clear();
+                        mRendering = rendering;
+                        mShownLevel = -1;
+                        showLevelForCamera();
+                    }
+                });
+    }
 
-                // if the current index of mSavedLocations should not be graphed...
-                if (currentSkipValue == i){
-                    // then instead of drawing a poly line, get the next index of which we should be
-                    // skipping
-                    currentSkipIndex += 1;
 
-                    if (currentSkipIndex < mSkipList.size()) {
-                        currentSkipValue = mSkipList.get(currentSkipIndex);
-                    }
-                    else{
-                        currentSkipValue = -1;
-                        currentSkipIndex = -1;
+    // Draw the track, one line per stretch between pauses (see TrackRenderer).  The lines are
+    // built in the background, so only adding them to the map happens here.
+    public void updateMapMarkers() {
+        if (mMap == null) {
+            return;
+        }
+        final int generation = ++mRenderGeneration;
+        TrackRenderer.buildInBackground(mTrack, mDetailLevels,
+                new DungeonRepository.ResultCallback<TrackRenderer.Rendering>() {
+                    @Override
+                    public void onResult(TrackRenderer.Rendering rendering) {
+                        // the map may have gone, or been asked to draw again, in the meantime
+                        if (mMap == null || generation != mRenderGeneration) {
+                            return;
+                        }
+                        mRendering = rendering;
+                        mShownLevel = -1;
+                        showLevelForCamera();
                     }
-                }
-                // else there is no need to skip, continue drawing polylines
-                else {
-                    LatLng src = mSavedLocations.get(i);
-                    LatLng dest = mSavedLocations.get(i + 1);
-
-                    // mMap is the Map Object
-                    Polyline line = mMap.addPolyline(
-                            new PolylineOptions().add(
-                                    new LatLng(src.latitude, src.longitude),
-                                    new LatLng(dest.latitude, dest.longitude)
-                            ).width(10).color(Color.BLACK).geodesic(true)
-                    );
-                }
-            }
+                });
+    }
+
+    @Override
+    public void onCameraIdle() {
+        showLevelForCamera();
+    }
+
+    // Swap the lines on the map for the level of detail the camera's zoom calls for, if that isn't
+    // the level already showing
+    private void showLevelForCamera() {
+        if (mMap == null || mRendering == null) {
+            return;
+        }
+        CameraPosition camera = mMap.getCameraPosition();
+        int level = mRendering.getLevels().levelForZoom(camera.zoom, camera.target.latitude);
+        if (level == mShownLevel) {
+            return;
         }
+        for (Polyline line : mShownLines) {
+            line.remove();
+        }
+        mShownLines.clear();
+        for (PolylineOptions line : mRendering.getLines(level)) {
+            mShownLines.add(mMap.addPolyline(line));
+        }
+        mShownLevel = level;
+    }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        // lines still being built have nowhere to go now
+        mMap = null;
+        mShownLines.clear();
+        mShownLevel = -1;
+        mStreamedLines.clear();
     }
 
     public void setFocus(LatLng loc) {
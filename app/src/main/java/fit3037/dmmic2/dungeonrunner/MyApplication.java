@@ -7,6 +7,10 @@ import android.app.Application;
 * https://stackoverflow.com/questions/21818905/get-application-context-from-non-activity-singleton-class/21819009
 * This allows me to access context (i.e. use db helper) in classes such as Equipment where there is
 * no getApplicationContext that can be called.
+*
+* The application is also the owner of the shared database connection.  It takes a reference when
+* the process starts and only gives it back when the process is torn down, so the many short
+* openDatabase/closeDatabase pairs in DatabaseHelper never actually close the connection.
 * */
 
 public class MyApplication extends Application {
@@ -16,8 +20,20 @@ public class MyApplication extends Application {
     @Override
     public void onCreate() {
         super.onCreate();
+        StartupTiming.markProcessStart();
         mContext = this;
+        // On first launch put the prebuilt database in place before anything opens it
+        SeedDatabaseInstaller.installIfNeeded(this);
+        // Open (and if need be upgrade) the database off the main thread
+        DungeonRepository.getInstance(this).openApplicationDatabase(this);
+    }
+
+    @Override
+    public void onTerminate() {
+        // Only ever called on emulators, but keeps the ownership of the connection explicit
+        DatabaseHelper.getInstance(this).closeDatabase();
+        super.onTerminate();
     }
 
     public static MyApplication getContext() { return mContext; }
-}
\ No newline at end of file
+}
@@ -17,7 +17,7 @@ import android.widget.Button;
 public class Options extends AppCompatActivity {
 
     Button mDataResetButton;
-    private DatabaseHelper mDBHelper;
+    private DungeonRepository mRepository;
 
 
     @Override
@@ -28,7 +28,7 @@ public class Options extends AppCompatActivity {
         setSupportActionBar(toolbar);
         getSupportActionBar().setTitle("Options");
 
-        mDBHelper = new DatabaseHelper(getApplicationContext());
+        mRepository = DungeonRepository.getInstance(getApplicationContext());
         mDataResetButton = findViewById(R.id.resetDataButton);
 
         // On Click: Go to the Dungeon Selection activity
@@ -44,7 +44,7 @@ public class Options extends AppCompatActivity {
                         "All dungeon records will be removed, and all items will be deleted.");
                 builder.setPositiveButton("Yes, delete everything",  new DialogInterface.OnClickListener() {
                     public void onClick(DialogInterface dialog, int id) {
-                        mDBHelper.resetData();
+                        mRepository.resetData(null);
                     }
                 });
                 builder.show();
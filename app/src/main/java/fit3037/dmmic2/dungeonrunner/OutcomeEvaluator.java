@@ -0,0 +1,164 @@
+package fit3037.dmmic2.dungeonrunner;
+
+/*
+* Judges a run against its DungeonLevel as the run goes, rather than only once it is over.  The
+* RunPipeline calls update with the run time and distance after every fix, which is a handful of
+* sums whatever the length of the run, and the tracker shows what comes out of it: whether the
+* dungeon would be passed if the run stopped now, when it looks like being passed, and the pace
+* still needed.  The outcome Dungeon Results saves is the evaluator's state after the last update,
+* so nothing is worked out a second time.
+*
+* Which rules apply depends on which of the level's constraints are set (see DungeonLevel):
+*
+* Distance only:                Passed once the distance is covered, however long it takes.
+* Time, distance and pace:      Passed by covering the distance within the time, or by running for
+*                               at least the time at the pace or faster.
+* Time and pace:                Passed by running for at least the time at the pace or faster.
+* None (Dungeon Farm):          Always passed.
+*
+* Times are in whole seconds and distances in whole metres, as the run is stored, and paces in km/h.
+* */
+
+public class OutcomeEvaluator {
+
+    // Outcomes, as stored in the dungeonRecords table
+    public static final int FAILURE = 0;
+    public static final int SUCCESS = 1;
+
+    // No projected finish: nothing run yet, or not at this pace
+    public static final int NO_FINISH = -1;
+
+    private static final int RULES_DISTANCE = 0;
+    private static final int RULES_TIMED_DISTANCE = 1;
+    private static final int RULES_TIMED_PACE = 2;
+    private static final int RULES_FARM = 3;
+    // a combination of constraints no level should have, which always fails
+    private static final int RULES_NONE = 4;
+
+    private final int mTimeLimit;
+    private final int mDistanceRequired;
+    private final double mPaceRequired;
+    private final int mRules;
+
+    private int mTime = 0;
+    private int mDistance = 0;
+    private double mPace = 0;
+    private int mOutcome = FAILURE;
+    private int mPassedAt;
+    private int mProjectedFinish;
+    private double mPaceNeeded;
+
+    public OutcomeEvaluator(DungeonLevel level) {
+        this(level.getTime(), level.getDistance(), level.getPace());
+    }
+
+    public OutcomeEvaluator(int timeLimit, int distanceRequired, double paceRequired) {
+        mTimeLimit = timeLimit;
+        mDistanceRequired = distanceRequired;
+        mPaceRequired = paceRequired;
+        if (timeLimit == 0 && distanceRequired != 0 && paceRequired == 0) {
+            mRules = RULES_DISTANCE;
+        } else if (timeLimit != 0 && distanceRequired != 0 && paceRequired != 0) {
+            mRules = RULES_TIMED_DISTANCE;
+        } else if (timeLimit != 0 && distanceRequired == 0 && paceRequired != 0) {
+            mRules = RULES_TIMED_PACE;
+        } else if (timeLimit == 0 && distanceRequired == 0 && paceRequired == 0) {
+            mRules = RULES_FARM;
+        } else {
+            mRules = RULES_NONE;
+        }
+        update(0, 0);
+    }
+
+    // Getter Methods
+    public int getTime() { return mTime; }
+    public int getDistance() { return mDistance; }
+    public double getPace() { return mPace; }
+    public int getOutcome() { return mOutcome; }
+    public boolean isPassing() { return mOutcome == SUCCESS; }
+    // Run time (s) the dungeon looks like being passed at, going on as the run has so far, or
+    // NO_FINISH.  Once it is passing, the time it was passed at.
+    public int getProjectedFinish() { return mProjectedFinish; }
+    // Pace (km/h) needed from here on to pass, or 0 if nothing more is needed
+    public double getPaceNeeded() { return mPaceNeeded; }
+
+    // Bring the evaluation up to date with the run so far
+    public void update(long elapsedMillis, double distance) {
+        int previousOutcome = mOutcome;
+        mTime = (int) (elapsedMillis / 1000);
+        mDistance = (int) Math.rint(distance);
+        // a run of no time at all counts as one second, so the pace doesn't divide by zero
+        mPace = calculatePace(Math.max(1, mTime), mDistance);
+
+        switch (mRules) {
+            case RULES_DISTANCE:
+                mOutcome = (mDistance >= mDistanceRequired) ? SUCCESS : FAILURE;
+                mProjectedFinish = projectDistance();
+                mPaceNeeded = 0;
+                break;
+            case RULES_TIMED_DISTANCE:
+                mOutcome = ((mDistance >= mDistanceRequired && mTime <= mTimeLimit)
+                        || (mPace >= mPaceRequired && mTime >= mTimeLimit)) ? SUCCESS : FAILURE;
+                // at this pace the distance comes too late, and the pace isn't enough either
+                mProjectedFinish = projectDistance();
+                if (mProjectedFinish > mTimeLimit) {
+                    mProjectedFinish = NO_FINISH;
+                }
+                mPaceNeeded = paceNeededBy(mDistanceRequired);
+                break;
+            case RULES_TIMED_PACE:
+                mOutcome = (mPace >= mPaceRequired && mTime >= mTimeLimit) ? SUCCESS : FAILURE;
+                mProjectedFinish = (mDistance > 0 && mPace >= mPaceRequired)
+                        ? Math.max(mTime, mTimeLimit) : NO_FINISH;
+                mPaceNeeded = paceNeededBy((int) Math.ceil(mPaceRequired / 3.6 * mTimeLimit));
+                break;
+            case RULES_FARM:
+                mOutcome = SUCCESS;
+                mProjectedFinish = mTime;
+                mPaceNeeded = 0;
+                break;
+            default:
+                mOutcome = FAILURE;
+                mProjectedFinish = NO_FINISH;
+                mPaceNeeded = 0;
+                break;
+        }
+
+        if (mOutcome == SUCCESS) {
+            if (previousOutcome != SUCCESS) {
+                mPassedAt = mTime;
+            }
+            mProjectedFinish = mPassedAt;
+            mPaceNeeded = 0;
+        }
+    }
+
+    // When the required distance will be covered at the average pace so far
+    private int projectDistance() {
+        if (mDistance <= 0) {
+            return NO_FINISH;
+        }
+        return (int) Math.ceil((double) mTime * mDistanceRequired / mDistance);
+    }
+
+    // Pace needed to have run metres by the time limit, or the level's pace once the time limit
+    // has gone, as from then on only the average pace counts
+    private double paceNeededBy(int metres) {
+        int timeLeft = mTimeLimit - mTime;
+        if (timeLeft <= 0) {
+            return mPaceRequired;
+        }
+        return calculatePace(timeLeft, Math.max(0, metres - mDistance));
+    }
+
+    // calculate the pace using time and distance.  note that time is seconds, distance is meters,
+    // but pace is km/h.  This goes for all usages in the app and databases!
+    public static double calculatePace(int time, int distance) {
+        if (time > 0) {
+            return ((distance / 1000.00) / (time / (60.00 * 60.00)));
+        }
+        else {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package fit3037.dmmic2.dungeonrunner;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+/*
+* Keeps the run in progress on disk as it happens, so a run survives the process being killed part
+* way through (low memory, a crash, the battery dying...).  Until a run reaches DungeonResults it
+* otherwise only lives in DungeonRunningTracker's fields.
+*
+* The journal is a single append only file in the app's files directory: a header describing the
+* dungeon being run, followed by one fixed size record per event.  Appending a record is a single
+* small write to a FileChannel with a reused buffer, so it lands in the OS page cache straight away
+* (which is enough to survive the process dying) with no allocation and no waiting on the disk.
+* Every SYNC_EVERY_RECORDS records, or SYNC_INTERVAL_MS, whichever comes first, the channel is
+* forced to the disk as well so little is lost if the whole phone goes down.  A memory mapped file
+* was considered, but it would have to be sized up front and a run has no known length.
+*
+*         ---Format (version 1)---
+*
+* int           MAGIC
+* int           FORMAT_VERSION
+* long, int, int, double, double    id, time, distance, pace, multiplier of the dungeon level
+* short, bytes  length of the dungeon level name, then its UTF-8 bytes
+*               then records of RECORD_SIZE bytes each:
+* byte          RECORD_POINT or RECORD_PAUSE
+* double x3     latitude, longitude, altitude of a point (unused for a pause)
+* long          time of a point (ms since 1970), or the run time on the clock when paused (ms)
+*
+* If the process dies in the middle of a write, the last record is cut short; recovery just ignores
+* a trailing partial record.  The journal is deleted once the run has been saved (or abandoned), so
+* finding one when the app starts means a run was interrupted, and recover() rebuilds it.
+* */
+
+public class RunJournal {
+
+    static final String FILE_NAME = "run.journal";
+
+    private static final int MAGIC = 0x444A524E;    // "DJRN"
+    private static final int FORMAT_VERSION = 1;
+
+    static final byte RECORD_POINT = 1;
+    static final byte RECORD_PAUSE = 2;
+    static final int RECORD_SIZE = 1 + 8 * 3 + 8;
+
+    // How often appended records are forced through to the disk
+    static final int SYNC_EVERY_RECORDS = 20;
+    static final long SYNC_INTERVAL_MS = 10000;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    // Set while a journal is open in this process, so a run in progress isn't mistaken for an
+    // interrupted one
+    private static volatile boolean sOpen = false;
+
+    private FileChannel mChannel;
+    private final ByteBuffer mRecord = ByteBuffer.allocateDirect(RECORD_SIZE);
+    private int mUnsyncedRecords = 0;
+    private long mLastSync;
+
+    // A run rebuilt from a journal, with everything DungeonResults needs to finish it
+    public static class RecoveredRun {
+        private final DungeonLevel mLevel;
+        private final TrackBuffer mTrack;
+        private final long mElapsedMillis;
+        private final double mDistance;
+
+        RecoveredRun(DungeonLevel level, TrackBuffer track, long elapsedMillis, double distance) {
+            mLevel = level;
+            mTrack = track;
+            mElapsedMillis = elapsedMillis;
+            mDistance = distance;
+        }
+
+        public DungeonLevel getLevel() { return mLevel; }
+        public TrackBuffer getTrack() { return mTrack; }
+        public long getElapsedMillis() { return mElapsedMillis; }
+        public double getDistance() { return mDistance; }
+    }
+
+    // WRITING--------------------------------------------------------------------------------------
+
+    // Start a new journal for a run of level, replacing any previous one.  If the file can't be
+    // written the run still goes ahead, it just isn't journalled.
+    public static RunJournal start(Context context, DungeonLevel level) {
+        RunJournal journal = new RunJournal();
+        try {
+            journal.mChannel = new FileOutputStream(getFile(context), false).getChannel();
+            journal.writeHeader(level);
+            journal.sync();
+            sOpen = true;
+        } catch (IOException e) {
+            Log.d("RUN JOURNAL", "couldn't start journal: " + e.getMessage());
+            journal.abandon();
+        }
+        return journal;
+    }
+
+    public void appendPoint(double latitude, double longitude, double altitude, long time) {
+        append(RECORD_POINT, latitude, longitude, altitude, time);
+    }
+
+    // Note a pause, along with the run time on the clock at that moment.  Pausing is also a good
+    // time to sync, as the user is standing still and probably about to put the phone away.
+    public void appendPause(long elapsedMillis) {
+        append(RECORD_PAUSE, 0, 0, 0, elapsedMillis);
+        sync();
+    }
+
+    // Make sure everything so far is on the disk and stop writing.  The file itself stays until
+    // discard is called.
+    public void close() {
+        if (mChannel == null) {
+            return;
+        }
+        sync();
+        abandon();
+    }
+
+    private void append(byte type, double latitude, double longitude, double altitude, long time) {
+        if (mChannel == null) {
+            return;
+        }
+        mRecord.clear();
+        mRecord.put(type).putDouble(latitude).putDouble(longitude).putDouble(altitude).putLong(time);
+        mRecord.flip();
+        try {
+            while (mRecord.hasRemaining()) {
+                mChannel.write(mRecord);
+            }
+        } catch (IOException e) {
+            Log.d("RUN JOURNAL", "couldn't append, no longer journalling this run: " + e.getMessage());
+            abandon();
+            return;
+        }
+
+        mUnsyncedRecords += 1;
+        if (mUnsyncedRecords >= SYNC_EVERY_RECORDS
+                || System.currentTimeMillis() - mLastSync >= SYNC_INTERVAL_MS) {
+            sync();
+        }
+    }
+
+    // Force the file's contents (not its metadata, which a later sync will catch up) to the disk
+    private void sync() {
+        if (mChannel == null) {
+            return;
+        }
+        try {
+            mChannel.force(false);
+        } catch (IOException e) {
+            Log.d("RUN JOURNAL", "couldn't sync: " + e.getMessage());
+        }
+        mUnsyncedRecords = 0;
+        mLastSync = System.currentTimeMillis();
+    }
+
+    private void writeHeader(DungeonLevel level) throws IOException {
+        byte[] name = level.getName().getBytes(UTF_8);
+        ByteBuffer header = ByteBuffer.allocate(4 + 4 + 8 + 4 + 4 + 8 + 8 + 2 + name.length);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION);
+        header.putLong(level.getId()).putInt(level.getTime()).putInt(level.getDistance());
+        header.putDouble(level.getPace()).putDouble(level.getMultiplier());
+        header.putShort((short) name.length).put(name);
+        header.flip();
+        while (header.hasRemaining()) {
+            mChannel.write(header);
+        }
+    }
+
+    private void abandon() {
+        if (mChannel != null) {
+            try {
+                mChannel.close();
+            } catch (IOException e) {
+                Log.d("RUN JOURNAL", "couldn't close: " + e.getMessage());
+            }
+        }
+        mChannel = null;
+        sOpen = false;
+    }
+
+    // RECOVERY-------------------------------------------------------------------------------------
+
+    // Delete the journal, once its run has been saved or the user doesn't want it
+    public static void discard(Context context) {
+        File file = getFile(context);
+        if (file.exists() && !file.delete()) {
+            Log.d("RUN JOURNAL", "couldn't delete " + file);
+        }
+    }
+
+    // Read back an interrupted run, or null if there isn't one worth finishing.  Reads the whole
+    // file, so shouldn't be done on the main thread.
+    public static RecoveredRun recover(Context context) {
+        if (sOpen) {
+            return null;
+        }
+        File file = getFile(context);
+        if (!file.exists()) {
+            return null;
+        }
+        try {
+            RecoveredRun run = read(file);
+            if (run == null) {
+                discard(context);
+            }
+            return run;
+        } catch (IOException e) {
+            Log.d("RUN JOURNAL", "couldn't read " + file + ": " + e.getMessage());
+            return null;
+        } catch (RuntimeException e) {
+            // a header cut short or from some other version, nothing can be done with it
+            Log.d("RUN JOURNAL", "unreadable journal, discarding: " + e);
+            discard(context);
+            return null;
+        }
+    }
+
+    // recover() on a background thread, handing the run (or null) back on the main thread
+    public static void recoverInBackground(Context context,
+            final DungeonRepository.ResultCallback<RecoveredRun> callback) {
+        final Context appContext = context.getApplicationContext();
+        final Handler mainHandler = new Handler(Looper.getMainLooper());
+        Thread reader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                final RecoveredRun run = recover(appContext);
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        callback.onResult(run);
+                    }
+                });
+            }
+        }, "RunJournal");
+        reader.setPriority(Thread.MIN_PRIORITY);
+        reader.start();
+    }
+
+    static RecoveredRun read(File file) throws IOException {
+        FileChannel channel = new FileInputStream(file).getChannel();
+        ByteBuffer in;
+        try {
+            in = ByteBuffer.allocate((int) channel.size());
+            while (in.hasRemaining() && channel.read(in) >= 0) {
+                // keep reading until the buffer is full
+            }
+        } finally {
+            channel.close();
+        }
+        in.flip();
+
+        if (in.getInt() != MAGIC || in.getInt() != FORMAT_VERSION) {
+            throw new IllegalArgumentException("not a version " + FORMAT_VERSION + " run journal");
+        }
+        long id = in.getLong();
+        int time = in.getInt();
+        int distance = in.getInt();
+        double pace = in.getDouble();
+        double multiplier = in.getDouble();
+        byte[] name = new byte[in.getShort()];
+        in.get(name);
+        DungeonLevel level = new DungeonLevel(id, new String(name, UTF_8), time, distance, pace,
+                multiplier);
+
+        // Rebuild the track, and from it the distance and the run time, the same way
+        // DungeonRunningTracker works them out as the run goes.  The clock time is only written at
+        // pauses, so the time since the last pause is taken from the fixes themselves.
+        TrackBuffer track = new TrackBuffer(in.remaining() / RECORD_SIZE);
+        DistanceEngine engine = DistanceEngine.create();
+        double totalDistance = 0;
+        boolean skipNext = false;
+        long elapsedAtPause = 0;
+        long firstTimeSincePause = -1;
+        long lastTime = -1;
+        while (in.remaining() >= RECORD_SIZE) {
+            byte type = in.get();
+            double latitude = in.getDouble();
+            double longitude = in.getDouble();
+            double altitude = in.getDouble();
+            long stamp = in.getLong();
+
+            if (type == RECORD_PAUSE) {
+                elapsedAtPause = stamp;
+                firstTimeSincePause = -1;
+                skipNext = true;
+                if (track.size() != 0) {
+                    track.addSkip(track.size() - 1);
+                }
+            } else if (type == RECORD_POINT) {
+                track.append(latitude, longitude, altitude, stamp);
+                if (firstTimeSincePause < 0) {
+                    firstTimeSincePause = stamp;
+                }
+                lastTime = stamp;
+                double step = engine.next(latitude, longitude, altitude);
+                if (skipNext) {
+                    skipNext = false;
+                } else {
+                    totalDistance += step;
+                }
+            }
+        }
+
+        if (track.size() == 0) {
+            return null;
+        }
+        long elapsed = elapsedAtPause;
+        if (firstTimeSincePause >= 0) {
+            elapsed += lastTime - firstTimeSincePause;
+        }
+        return new RecoveredRun(level, track, elapsed, totalDistance);
+    }
+
+    private static File getFile(Context context) {
+        return new File(context.getFilesDir(), FILE_NAME);
+    }
+}
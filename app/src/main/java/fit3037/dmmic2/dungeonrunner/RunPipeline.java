@@ -0,0 +1,375 @@
+package fit3037.dmmic2.dungeonrunner;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+
+/*
+* Does all the per fix work of a run on its own background thread, so the main thread does none.
+* Every fix from the LocationChannel is handed to the pipeline thread and goes through the same
+* stages in order:
+*
+* filter:       drop fixes that add nothing (the exact same place as the last one), then pass the
+*               rest through a LocationFilter, which can drop bad fixes and smooth out the jitter
+*               in good ones (KalmanLocationFilter unless told otherwise)
+* distance:     add the distance from the previous fix, unless the run was paused in between
+*               (worked out by a DistanceEngine in its DEFAULT_MODE)
+* metrics:      update the numbers shown on screen, and the OutcomeEvaluator's judgement of the run
+*               so far
+* persist:      append the fix to the track and to the RunJournal
+*
+* The tracker's buttons (start, pause, resume, finish) are queued onto the same thread, so they
+* always take effect in order with the fixes around them.  A pause stops the clock straight away,
+* but fixes from before it can still be on their way, held back by the location provider to be
+* delivered in a batch (see FusedLocationSource).  So the track is only cut once GPSService says
+* it has handed over everything it had (see LocationChannel), or after STOP_TIMEOUT_MS if it never
+* does, and the tracker is told through onPaused.  All of the run's state is only ever touched on
+* the pipeline thread.
+*
+* The screen is only told about the run through a RunSnapshot, pushed at most once every
+* UI_INTERVAL_MS.  Fixes arriving in between just update the next snapshot, so however often fixes
+* come in the UI does a bounded amount of work.
+* */
+
+public class RunPipeline implements LocationChannel.LocationSampleListener {
+
+    // Most often a snapshot is pushed to the screen
+    static final long UI_INTERVAL_MS = 250;
+    // Longest a pause waits for GPSService to hand over the last of its fixes
+    static final long STOP_TIMEOUT_MS = 5000;
+
+    // Everything here is called on the main thread
+    public interface Listener {
+        void onSnapshot(RunSnapshot snapshot);
+        // Every fix from before the last pause has been dealt with, so the run can be resumed or
+        // finished
+        void onPaused();
+        // The finished run, in the TrackStore under trackId, with its time (s), distance (m) and
+        // outcome as the OutcomeEvaluator left them
+        void onFinished(long trackId, int time, int distance, int outcome);
+    }
+
+    // What the screen shows of the run, as of the last fix
+    public static class RunSnapshot {
+        private final double mLatitude;
+        private final double mLongitude;
+        private final double mAltitude;
+        private final int mSamples;
+        private final double mDistance;
+        private final boolean mPassing;
+        private final int mProjectedFinish;
+        private final double mPaceNeeded;
+
+        RunSnapshot(double latitude, double longitude, double altitude, int samples,
+                double distance, OutcomeEvaluator outcome) {
+            mLatitude = latitude;
+            mLongitude = longitude;
+            mAltitude = altitude;
+            mSamples = samples;
+            mDistance = distance;
+            mPassing = outcome.isPassing();
+            mProjectedFinish = outcome.getProjectedFinish();
+            mPaceNeeded = outcome.getPaceNeeded();
+        }
+
+        public double getLatitude() { return mLatitude; }
+        public double getLongitude() { return mLongitude; }
+        public double getAltitude() { return mAltitude; }
+        // every fix received, including ones the filter dropped
+        public int getSamples() { return mSamples; }
+        public double getDistance() { return mDistance; }
+        // see OutcomeEvaluator
+        public boolean isPassing() { return mPassing; }
+        public int getProjectedFinish() { return mProjectedFinish; }
+        public double getPaceNeeded() { return mPaceNeeded; }
+    }
+
+    private final Context mContext;
+    private final DungeonLevel mLevel;
+    private final LocationFilter mFilter;
+    private final DistanceEngine mDistance = DistanceEngine.create();
+    private volatile Listener mListener;
+
+    private final HandlerThread mThread;
+    private final Handler mHandler;
+    private final Handler mMainHandler;
+
+    // State of the run, only touched on the pipeline thread
+    private TrackBuffer mTrack = new TrackBuffer();
+    private RunJournal mJournal;
+    private final OutcomeEvaluator mOutcome;
+    private double mTotalDistance = 0;
+    // run time on the clock at the last pause, and when (elapsedRealtime) it last started running
+    // again, or -1 while paused
+    private long mElapsedAtPause = 0;
+    private long mRunningSince = -1;
+    private boolean mSkipNext = false;
+    // paused, but the track not yet cut, see mCutPause
+    private boolean mPausePending = false;
+    private int mSamples = 0;
+    private double mLastRawLatitude = Double.NaN;
+    private double mLastRawLongitude = Double.NaN;
+    private double mLatitude;
+    private double mLongitude;
+    private double mAltitude;
+    private boolean mSnapshotPending = false;
+    private long mLastSnapshot = 0;
+
+    public RunPipeline(Context context, DungeonLevel level, Listener listener) {
+        this(context, level, listener, new KalmanLocationFilter());
+    }
+
+    public RunPipeline(Context context, DungeonLevel level, Listener listener,
+            LocationFilter filter) {
+        mContext = context.getApplicationContext();
+        mLevel = level;
+        mFilter = filter;
+        mOutcome = new OutcomeEvaluator(level);
+        mListener = listener;
+        mThread = new HandlerThread("RunPipeline", Process.THREAD_PRIORITY_BACKGROUND);
+        mThread.start();
+        mHandler = new Handler(mThread.getLooper());
+        mMainHandler = new Handler(Looper.getMainLooper());
+        LocationChannel.getInstance().register(this);
+    }
+
+    // COMMANDS (called on the main thread)---------------------------------------------------------
+
+    public void start() {
+        final long now = SystemClock.elapsedRealtime();
+        mHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                mJournal = RunJournal.start(mContext, mLevel);
+                mRunningSince = now;
+            }
+        });
+    }
+
+    // elapsedMillis is the run time on the clock at the pause.  The GPS service should be stopped
+    // along with it; the track is cut once it has handed over its last fixes, see onPaused.
+    public void pause(final long elapsedMillis) {
+        mHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                mElapsedAtPause = elapsedMillis;
+                mRunningSince = -1;
+                mPausePending = true;
+                mHandler.postDelayed(mCutPause, STOP_TIMEOUT_MS);
+            }
+        });
+    }
+
+    public void resume() {
+        final long now = SystemClock.elapsedRealtime();
+        mHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                mRunningSince = now;
+            }
+        });
+    }
+
+    // Hand the run over to the TrackStore.  The journal is left on disk until Dungeon Results has
+    // saved the run.  Should the run be resumed afterwards, it carries on in a copy.
+    public void finish() {
+        mHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                if (mJournal != null) {
+                    mJournal.close();
+                }
+                final long trackId = TrackStore.getInstance().put(mTrack);
+                mOutcome.update(getElapsedMillis(), mTotalDistance);
+                final int time = mOutcome.getTime();
+                final int distance = mOutcome.getDistance();
+                final int outcome = mOutcome.getOutcome();
+                mTrack = TrackBuffer.copyOf(mTrack);
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        Listener listener = mListener;
+                        if (listener != null) {
+                            listener.onFinished(trackId, time, distance, outcome);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    // Stop listening and shut the thread down once everything queued has been done.  The journal
+    // is deleted as well if the run is being thrown away.
+    public void quit(final boolean discardJournal) {
+        mListener = null;
+        LocationChannel.getInstance().unregister(this);
+        mHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                if (mJournal != null) {
+                    mJournal.close();
+                    if (discardJournal) {
+                        RunJournal.discard(mContext);
+                    }
+                }
+                mThread.quitSafely();
+            }
+        });
+    }
+
+    // PIPELINE-------------------------------------------------------------------------------------
+
+    // Called on whatever thread published it, after the last fix GPSService had
+    @Override
+    public void onLocationsStopped() {
+        mHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                mHandler.removeCallbacks(mCutPause);
+                mCutPause.run();
+            }
+        });
+    }
+
+    // Cut the track at a pause, once every fix from before it is in
+    private final Runnable mCutPause = new Runnable() {
+        @Override
+        public void run() {
+            if (!mPausePending) {
+                return;
+            }
+            mPausePending = false;
+            // don't join the last fix before the pause to the first one after it, in distance or
+            // on the map (see DungeonRunningTracker)
+            mSkipNext = true;
+            mFilter.reset();
+            if (mTrack.size() != 0) {
+                mTrack.addSkip(mTrack.size() - 1);
+            }
+            if (mJournal != null) {
+                mJournal.appendPause(mElapsedAtPause);
+            }
+            mMainHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    Listener listener = mListener;
+                    if (listener != null) {
+                        listener.onPaused();
+                    }
+                }
+            });
+        }
+    };
+
+    // Called on whatever thread published the fix
+    @Override
+    public void onLocationSample(final double latitude, final double longitude,
+            final double altitude, final long time, final float accuracy, final float speed,
+            final float bearing) {
+        mHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                process(latitude, longitude, altitude, time, accuracy, speed, bearing);
+            }
+        });
+    }
+
+    // Called on whatever thread published the batch.  The whole batch is dealt with in one go, and
+    // makes at most one snapshot.
+    @Override
+    public void onLocationBatch(final LocationBatch batch) {
+        mHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < batch.size(); i++) {
+                    process(batch.getLatitude(i), batch.getLongitude(i), batch.getAltitude(i),
+                            batch.getTime(i), batch.getAccuracy(i), batch.getSpeed(i),
+                            batch.getBearing(i));
+                }
+            }
+        });
+    }
+
+    private void process(double latitude, double longitude, double altitude, long time,
+            float accuracy, float speed, float bearing) {
+        mSamples += 1;
+
+        // filter: the exact same place as last time only creates more work for map creation and
+        // distance calculation with no gain
+        if (latitude == mLastRawLatitude && longitude == mLastRawLongitude) {
+            scheduleSnapshot();
+            return;
+        }
+        mLastRawLatitude = latitude;
+        mLastRawLongitude = longitude;
+        if (!mFilter.accept(latitude, longitude, altitude, time, accuracy, speed, bearing)) {
+            scheduleSnapshot();
+            return;
+        }
+        latitude = mFilter.getLatitude();
+        longitude = mFilter.getLongitude();
+        altitude = mFilter.getAltitude();
+
+        // distance: unless this is the first fix since a pause
+        double step = mDistance.next(latitude, longitude, altitude);
+        if (mSkipNext) {
+            mSkipNext = false;
+        } else {
+            mTotalDistance += step;
+        }
+
+        // metrics
+        mLatitude = latitude;
+        mLongitude = longitude;
+        mAltitude = altitude;
+        mOutcome.update(getElapsedMillis(), mTotalDistance);
+        scheduleSnapshot();
+
+        // persist
+        mTrack.append(latitude, longitude, altitude, time);
+        if (mJournal != null) {
+            mJournal.appendPoint(latitude, longitude, altitude, time);
+        }
+    }
+
+    // Run time on the clock, the same as the tracker's chronometer shows
+    private long getElapsedMillis() {
+        if (mRunningSince < 0) {
+            return mElapsedAtPause;
+        }
+        return mElapsedAtPause + SystemClock.elapsedRealtime() - mRunningSince;
+    }
+
+    // Push a snapshot now if one hasn't gone out for UI_INTERVAL_MS, otherwise once it has.  Any
+    // fixes in the meantime are folded into that same snapshot.
+    private void scheduleSnapshot() {
+        if (mSnapshotPending) {
+            return;
+        }
+        mSnapshotPending = true;
+        long wait = mLastSnapshot + UI_INTERVAL_MS - SystemClock.uptimeMillis();
+        mHandler.postDelayed(mPushSnapshot, Math.max(0, wait));
+    }
+
+    private final Runnable mPushSnapshot = new Runnable() {
+        @Override
+        public void run() {
+            mSnapshotPending = false;
+            mLastSnapshot = SystemClock.uptimeMillis();
+            final RunSnapshot snapshot = new RunSnapshot(mLatitude, mLongitude, mAltitude,
+                    mSamples, mTotalDistance, mOutcome);
+            mMainHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    Listener listener = mListener;
+                    if (listener != null) {
+                        listener.onSnapshot(snapshot);
+                    }
+                }
+            });
+        }
+    };
+}
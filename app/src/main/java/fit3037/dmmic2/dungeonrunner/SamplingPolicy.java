@@ -0,0 +1,124 @@
+package fit3037.dmmic2.dungeonrunner;
+
+/*
+* Decides how often GPSService asks for fixes, and how far the runner has to move between them.
+* Every fix wakes the GPS and the app up, so asking for no more than the run needs is most of what
+* can be done about battery drain on a run of several hours.
+*
+* What the run needs depends on:
+*
+* The dungeon:          Levels with a pace to keep up (see DungeonLevel.getPace) are judged on time
+*                       and distance together, and get frequent fixes.  Distance only levels (e.g.
+*                       Cave Crawl) and the Dungeon Farm only need the total distance, which a fix
+*                       every few seconds and every few metres gives just as well.
+*
+* What the runner does: While the GPS reports them standing still, fixes come less often and only
+*                       once they have moved a few metres, so waiting at the lights costs next to
+*                       nothing.  Movement past that distance brings the next fix, and moving again.
+*
+* The signal:           While fixes are poor (see POOR_ACCURACY), they are asked for more often, as
+*                       the GPS is working hard anyway and the location filter can make more of
+*                       several poor fixes than of one.
+*
+* Where fixes can be batched (see FusedLocationSource), up to BATCH_FIXES of them are held back and
+* delivered together, so the app wakes once per batch rather than once per fix.  That is only done
+* while the tracker is off screen (see setBatching).  The cost of batching is that nothing moves
+* until a batch arrives: 15s on a pace level, 40s on a distance only one, and longer standing
+* still.  The live distance and outcome would update in steps, and the RunJournal would lag by as
+* much, so a run killed during the wait loses the fixes held back.  With the tracker showing, fixes come as they
+* are taken.  Once it is in the background nobody is watching, and a run is mostly done with the
+* screen off, so saving the wake-ups is worth the short window of fixes at risk.
+*
+* The policy only switches mode once MODE_CHANGE_FIXES fixes in a row agree, so a single odd fix
+* doesn't make GPSService register for updates all over again.
+* */
+
+public class SamplingPolicy {
+
+    static final int MODE_MOVING = 0;
+    static final int MODE_STILL = 1;
+    static final int MODE_POOR_SIGNAL = 2;
+
+    // Reported accuracy (m) worse than this counts as a poor signal
+    static final float POOR_ACCURACY = 20;
+    // Slowest reported speed (m/s) taken as moving, the same as KalmanLocationFilter
+    static final double MOVING_SPEED = KalmanLocationFilter.MOVING_SPEED;
+    // How many fixes in a row have to call for a new mode before switching to it
+    static final int MODE_CHANGE_FIXES = 3;
+    // How many fixes to let the location provider hold back and deliver together
+    static final int BATCH_FIXES = 10;
+
+    // Interval (ms) and minimum distance (m) for each mode, for levels with a pace to keep up...
+    private static final long[] PACE_INTERVALS = {1500, 5000, 1000};
+    private static final float[] PACE_DISTANCES = {0, 5, 0};
+    // ...and for the rest
+    private static final long[] DISTANCE_INTERVALS = {4000, 10000, 2000};
+    private static final float[] DISTANCE_DISTANCES = {10, 10, 0};
+
+    private final long[] mIntervals;
+    private final float[] mDistances;
+    private int mMode = MODE_MOVING;
+    private int mCandidateMode = MODE_MOVING;
+    private int mCandidateFixes = 0;
+    // set from the main thread, read on GPSService's location thread
+    private volatile boolean mBatching = false;
+
+    // The policy for a run of level, or for a pace level if it isn't known (e.g. GPSService was
+    // restarted by the system without it), as that asks for the most
+    public static SamplingPolicy forLevel(DungeonLevel level) {
+        if (level == null || level.getPace() > 0) {
+            return new SamplingPolicy(PACE_INTERVALS, PACE_DISTANCES);
+        }
+        return new SamplingPolicy(DISTANCE_INTERVALS, DISTANCE_DISTANCES);
+    }
+
+    private SamplingPolicy(long[] intervals, float[] distances) {
+        mIntervals = intervals;
+        mDistances = distances;
+    }
+
+    // Getter Methods
+    public int getMode() { return mMode; }
+    public long getInterval() { return mIntervals[mMode]; }
+    public float getMinDistance() { return mDistances[mMode]; }
+    public long getMaxWait() { return mBatching ? getInterval() * BATCH_FIXES : 0; }
+
+    // Let fixes be batched or not, see above.  Returns true if that changes anything.
+    public boolean setBatching(boolean batching) {
+        boolean changed = batching != mBatching;
+        mBatching = batching;
+        return changed;
+    }
+
+    // Take a new fix into account.  Returns true if the interval or distance to ask for has
+    // changed.
+    public boolean onFix(float accuracy, float speed) {
+        int mode;
+        if (accuracy > POOR_ACCURACY) {
+            mode = MODE_POOR_SIGNAL;
+        } else if (speed < MOVING_SPEED) {
+            mode = MODE_STILL;
+        } else {
+            mode = MODE_MOVING;
+        }
+
+        if (mode == mMode) {
+            mCandidateFixes = 0;
+            return false;
+        }
+        if (mode != mCandidateMode) {
+            mCandidateMode = mode;
+            mCandidateFixes = 0;
+        }
+        mCandidateFixes += 1;
+        if (mCandidateFixes < MODE_CHANGE_FIXES) {
+            return false;
+        }
+
+        long interval = getInterval();
+        float distance = getMinDistance();
+        mMode = mode;
+        mCandidateFixes = 0;
+        return interval != getInterval() || distance != getMinDistance();
+    }
+}
@@ -0,0 +1,117 @@
+package fit3037.dmmic2.dungeonrunner;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+/*
+* On first launch this copies the seed database that ships in the apk (built at compile time by
+* the generateSeedDatabase task in app/build.gradle) into the app's database directory, so the
+* catalog tables are already populated before DatabaseHelper ever opens the database.
+*
+* The copy goes straight from the apk to a temporary file with a FileChannel transfer, is checked
+* to be a schema version this build of the app knows how to open, and only then renamed into
+* place.  If anything goes wrong the temporary file is thrown away and DatabaseHelper.onCreate
+* builds and seeds the tables itself, just as it always used to.
+*
+* Must be called before the DatabaseHelper connection is first opened (see MyApplication).
+* */
+
+public class SeedDatabaseInstaller {
+
+    public static final String SEED_ASSET = "seed/DungeonRunnerDB.sqlite";
+
+    // Returns true if the seed database was installed, false if there was nothing to do or the
+    // install failed
+    public static boolean installIfNeeded(Context context) {
+        File target = context.getDatabasePath(DatabaseHelper.DATABASE_NAME);
+        if (target.exists()) {
+            return false;
+        }
+
+        long start = StartupTiming.now();
+        File parent = target.getParentFile();
+        if (!parent.exists() && !parent.mkdirs()) {
+            Log.d("SEED INSTALLER", "could not create " + parent);
+            return false;
+        }
+        File temp = new File(target.getPath() + ".seed");
+
+        try {
+            copyAsset(context, temp);
+        } catch (IOException e) {
+            Log.d("SEED INSTALLER", "could not copy " + SEED_ASSET + ", tables will be seeded on create");
+            temp.delete();
+            return false;
+        }
+
+        int version = readVersion(temp);
+        if (version < 1 || version > DatabaseHelper.DATABASE_VERSION) {
+            Log.d("SEED INSTALLER", "seed database has version " + version + " but this app is on "
+                    + DatabaseHelper.DATABASE_VERSION + ", ignoring it");
+            temp.delete();
+            return false;
+        }
+
+        // A journal left behind by an earlier database of the same name must never be applied to
+        // the fresh one
+        new File(target.getPath() + "-wal").delete();
+        new File(target.getPath() + "-shm").delete();
+        new File(target.getPath() + "-journal").delete();
+
+        if (!temp.renameTo(target)) {
+            Log.d("SEED INSTALLER", "could not move seed database into place");
+            temp.delete();
+            return false;
+        }
+        StartupTiming.report("installing seed database (version " + version + ")", start);
+        return true;
+    }
+
+    private static void copyAsset(Context context, File destination) throws IOException {
+        // The asset is stored uncompressed (see aaptOptions in app/build.gradle), so it sits in the
+        // apk as a plain byte range we can hand straight to the channel
+        AssetFileDescriptor descriptor = context.getAssets().openFd(SEED_ASSET);
+        FileInputStream in = descriptor.createInputStream();
+        FileOutputStream out = new FileOutputStream(destination);
+        try {
+            FileChannel source = in.getChannel();
+            FileChannel sink = out.getChannel();
+            long offset = descriptor.getStartOffset();
+            long length = descriptor.getLength();
+            long copied = 0;
+            while (copied < length) {
+                long transferred = source.transferTo(offset + copied, length - copied, sink);
+                if (transferred <= 0) {
+                    throw new IOException("seed asset ended after " + copied + " of " + length + " bytes");
+                }
+                copied += transferred;
+            }
+            sink.force(true);
+        } finally {
+            in.close();
+            out.close();
+            descriptor.close();
+        }
+    }
+
+    private static int readVersion(File file) {
+        try {
+            SQLiteDatabase db = SQLiteDatabase.openDatabase(file.getPath(), null,
+                    SQLiteDatabase.OPEN_READONLY);
+            int version = db.getVersion();
+            db.close();
+            return version;
+        } catch (Exception e) {
+            Log.d("SEED INSTALLER", "seed database could not be opened: " + e.getMessage());
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package fit3037.dmmic2.dungeonrunner;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+/*
+* A tiny timing hook for keeping an eye on how long the app takes to start.  MyApplication marks
+* the moment the process comes up, MainMenu reports once its first frame has focus, and anything
+* in between (such as seeding the database tables on first launch) can report its own duration.
+*
+* Everything is logged under the STARTUP tag, so cold start can be compared before and after a
+* change with:
+*       adb shell pm clear fit3037.dmmic2.dungeonrunner
+*       adb logcat -s STARTUP
+* */
+
+public class StartupTiming {
+
+    private static final String TAG = "STARTUP";
+
+    private static long sProcessStart = -1;
+    private static boolean sFirstFrameReported = false;
+
+    // Called from MyApplication.onCreate, as early as we can get
+    public static void markProcessStart() {
+        sProcessStart = now();
+    }
+
+    public static long now() {
+        return SystemClock.elapsedRealtime();
+    }
+
+    // Log how long something took, given the time it started at
+    public static void report(String what, long start) {
+        Log.d(TAG, what + " took " + (now() - start) + "ms");
+    }
+
+    // Log the time from process start until the first screen was shown.  Only the first call
+    // counts, since later calls are just the user navigating back to the screen.
+    public static void reportFirstFrame(String screen) {
+        if (sFirstFrameReported || sProcessStart < 0) {
+            return;
+        }
+        sFirstFrameReported = true;
+        report("cold start to first frame of " + screen, sProcessStart);
+    }
+}
@@ -0,0 +1,27 @@
+package fit3037.dmmic2.dungeonrunner;
+
+/*
+* A read-only view of the track of a run: its points in the order they were recorded, and the
+* indexes of the points after which the run was paused (so the map shouldn't join them to the next
+* point).  TrackBuffer is the one implementation; the tracker fills one in, and everything
+* downstream (results screen, map, codec) only reads it through this interface, point by point,
+* without copying it.
+* */
+
+public interface Track {
+
+    int size();
+    double getLatitude(int index);
+    double getLongitude(int index);
+    // metres above sea level, 0 if not known (e.g. a track loaded back from the database)
+    double getAltitude(int index);
+    // milliseconds since the epoch, 0 if not known
+    long getTime(int index);
+
+    int getSkipCount();
+    // indexes of points in ascending order
+    int getSkip(int skipIndex);
+
+    // where the track is (see TrackBounds), null if it has no points
+    TrackBounds getBounds();
+}
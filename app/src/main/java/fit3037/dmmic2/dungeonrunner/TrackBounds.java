@@ -0,0 +1,63 @@
+package fit3037.dmmic2.dungeonrunner;
+
+import com.google.android.gms.maps.model.LatLng;
+import com.google.android.gms.maps.model.LatLngBounds;
+
+/*
+* Where a track is, without having to look at its points: the box around all of them, where it
+* starts and ends, and its centroid (the average of its points).  TrackBuffer keeps these up to date
+* as points are appended, so a run has them by the time it finishes, and they are kept in their own
+* columns of dungeonRecords so the map can frame a route straight away and the journal can be
+* searched by area without decoding any tracks.
+*
+* The box is simply the smallest and largest latitude and longitude, so a run across the date line
+* gets a box the long way round the world.  That only costs it a zoomed out camera.
+* */
+
+public class TrackBounds {
+
+    private final double mSouth;
+    private final double mWest;
+    private final double mNorth;
+    private final double mEast;
+    private final double mStartLatitude;
+    private final double mStartLongitude;
+    private final double mEndLatitude;
+    private final double mEndLongitude;
+    private final double mCentroidLatitude;
+    private final double mCentroidLongitude;
+
+    // Constructor
+    public TrackBounds(double south, double west, double north, double east,
+            double startLatitude, double startLongitude, double endLatitude, double endLongitude,
+            double centroidLatitude, double centroidLongitude) {
+        mSouth = south;
+        mWest = west;
+        mNorth = north;
+        mEast = east;
+        mStartLatitude = startLatitude;
+        mStartLongitude = startLongitude;
+        mEndLatitude = endLatitude;
+        mEndLongitude = endLongitude;
+        mCentroidLatitude = centroidLatitude;
+        mCentroidLongitude = centroidLongitude;
+    }
+
+    // Getter Methods
+    public double getSouth() { return mSouth; }
+    public double getWest() { return mWest; }
+    public double getNorth() { return mNorth; }
+    public double getEast() { return mEast; }
+    public double getStartLatitude() { return mStartLatitude; }
+    public double getStartLongitude() { return mStartLongitude; }
+    public double getEndLatitude() { return mEndLatitude; }
+    public double getEndLongitude() { return mEndLongitude; }
+    public double getCentroidLatitude() { return mCentroidLatitude; }
+    public double getCentroidLongitude() { return mCentroidLongitude; }
+
+    public LatLngBounds toLatLngBounds() {
+        return new LatLngBounds(new LatLng(mSouth, mWest), new LatLng(mNorth, mEast));
+    }
+
+    public LatLng getCentroid() { return new LatLng(mCentroidLatitude, mCentroidLongitude); }
+}
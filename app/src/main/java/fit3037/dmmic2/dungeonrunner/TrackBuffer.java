@@ -0,0 +1,150 @@
+package fit3037.dmmic2.dungeonrunner;
+
+import java.util.Arrays;
+
+/*
+* A growable Track kept as parallel primitive arrays (latitude, longitude, altitude and time for
+* each point) plus an int array of skip indexes, rather than an ArrayList<LatLng> and an
+* ArrayList<Integer>.  Appending a point writes four numbers into arrays that double in size when
+* full, so a seven hour run at one fix every 1.5s is a dozen or so array allocations in total
+* instead of tens of thousands of LatLng and Integer objects.
+*
+* The box around the points and their sums are kept up to date as points are appended, so the
+* track's TrackBounds cost nothing to work out however long it is.
+* */
+
+public class TrackBuffer implements Track {
+
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int INITIAL_SKIP_CAPACITY = 8;
+
+    private double[] mLatitudes;
+    private double[] mLongitudes;
+    private double[] mAltitudes;
+    private long[] mTimes;
+    private int mSize = 0;
+
+    private int[] mSkips;
+    private int mSkipCount = 0;
+
+    // for getBounds
+    private double mSouth = Double.POSITIVE_INFINITY;
+    private double mWest = Double.POSITIVE_INFINITY;
+    private double mNorth = Double.NEGATIVE_INFINITY;
+    private double mEast = Double.NEGATIVE_INFINITY;
+    private double mLatitudeSum = 0;
+    private double mLongitudeSum = 0;
+
+    public TrackBuffer() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public TrackBuffer(int capacity) {
+        capacity = Math.max(capacity, 1);
+        mLatitudes = new double[capacity];
+        mLongitudes = new double[capacity];
+        mAltitudes = new double[capacity];
+        mTimes = new long[capacity];
+        mSkips = new int[INITIAL_SKIP_CAPACITY];
+    }
+
+    // Decode a track from the form it is stored in (see TrackCodec)
+    public static TrackBuffer decode(byte[] encoded) {
+        final TrackBuffer buffer = new TrackBuffer();
+        TrackCodec.decode(encoded, new TrackCodec.TrackVisitor() {
+            @Override
+            public void onPoint(double latitude, double longitude) {
+                buffer.append(latitude, longitude, 0, 0);
+            }
+            @Override
+            public void onSkip(int index) {
+                buffer.addSkip(index);
+            }
+        });
+        return buffer;
+    }
+
+    // A copy of track that can be appended to without changing the original
+    public static TrackBuffer copyOf(Track track) {
+        TrackBuffer copy = new TrackBuffer(track.size() + INITIAL_CAPACITY);
+        for (int i = 0; i < track.size(); i++) {
+            copy.append(track.getLatitude(i), track.getLongitude(i), track.getAltitude(i),
+                    track.getTime(i));
+        }
+        for (int i = 0; i < track.getSkipCount(); i++) {
+            copy.addSkip(track.getSkip(i));
+        }
+        return copy;
+    }
+
+    // Setter Methods
+    public void append(double latitude, double longitude, double altitude, long time) {
+        if (mSize == mLatitudes.length) {
+            int capacity = mSize * 2;
+            mLatitudes = Arrays.copyOf(mLatitudes, capacity);
+            mLongitudes = Arrays.copyOf(mLongitudes, capacity);
+            mAltitudes = Arrays.copyOf(mAltitudes, capacity);
+            mTimes = Arrays.copyOf(mTimes, capacity);
+        }
+        mLatitudes[mSize] = latitude;
+        mLongitudes[mSize] = longitude;
+        mAltitudes[mSize] = altitude;
+        mTimes[mSize] = time;
+        mSize += 1;
+
+        mSouth = Math.min(mSouth, latitude);
+        mNorth = Math.max(mNorth, latitude);
+        mWest = Math.min(mWest, longitude);
+        mEast = Math.max(mEast, longitude);
+        mLatitudeSum += latitude;
+        mLongitudeSum += longitude;
+    }
+
+    // Mark the point at index as the last before a pause
+    public void addSkip(int index) {
+        if (mSkipCount == mSkips.length) {
+            mSkips = Arrays.copyOf(mSkips, mSkipCount * 2);
+        }
+        mSkips[mSkipCount] = index;
+        mSkipCount += 1;
+    }
+
+    // Getter Methods
+    @Override
+    public int size() { return mSize; }
+    @Override
+    public double getLatitude(int index) { return mLatitudes[checkIndex(index)]; }
+    @Override
+    public double getLongitude(int index) { return mLongitudes[checkIndex(index)]; }
+    @Override
+    public double getAltitude(int index) { return mAltitudes[checkIndex(index)]; }
+    @Override
+    public long getTime(int index) { return mTimes[checkIndex(index)]; }
+    @Override
+    public int getSkipCount() { return mSkipCount; }
+    @Override
+    public int getSkip(int skipIndex) {
+        if (skipIndex >= mSkipCount) {
+            throw new IndexOutOfBoundsException("skip " + skipIndex + " of " + mSkipCount);
+        }
+        return mSkips[skipIndex];
+    }
+    @Override
+    public TrackBounds getBounds() {
+        if (mSize == 0) {
+            return null;
+        }
+        return new TrackBounds(mSouth, mWest, mNorth, mEast,
+                mLatitudes[0], mLongitudes[0], mLatitudes[mSize - 1], mLongitudes[mSize - 1],
+                mLatitudeSum / mSize, mLongitudeSum / mSize);
+    }
+
+    // The arrays are usually bigger than the track, so don't let a read past the end quietly
+    // return a zero
+    private int checkIndex(int index) {
+        if (index >= mSize) {
+            throw new IndexOutOfBoundsException("point " + index + " of " + mSize);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,284 @@
+package fit3037.dmmic2.dungeonrunner;
+
+import com.google.android.gms.maps.model.LatLng;
+
+import java.util.ArrayList;
+
+/*
+* Turns the coordinates and skip indexes of a run into the compact binary form kept in the track
+* column of dungeonRecords, and back again.
+*
+*         ---Format (version 1)---
+*
+* byte          FORMAT_VERSION
+* varint        number of points
+*               then for each point, the change in latitude and in longitude from the previous
+*               point (the first point is relative to 0,0), each in units of 1e-7 degrees
+*               (about a centimetre) as a zigzag varint
+* varint        number of skips
+*               then for each skip, the change from the previous skip index (the first is relative
+*               to 0) as a zigzag varint
+*
+* Consecutive GPS fixes are only metres apart, so nearly every delta fits in one or two bytes,
+* against roughly 25 characters per point for the old comma separated text.  Varints are the usual
+* 7 bits per byte, low bits first, with the top bit set on every byte but the last.  Zigzag maps
+* small negative numbers to small positive ones (0, -1, 1, -2... become 0, 1, 2, 3...) so they stay
+* short too.
+*
+* Encoding writes straight into a byte array and decoding reads straight out of one, with no
+* strings in between.  Decoding hands each value to a TrackVisitor as it is read, so callers can
+* build whatever structure they need without an intermediate list.  A Reader decodes the points a
+* few at a time instead, for drawing a track before all of it has been decoded.
+* */
+
+public class TrackCodec {
+
+    public static final int FORMAT_VERSION = 1;
+
+    // Degrees are stored as whole multiples of this
+    private static final double SCALE = 1e7;
+
+    // Receives the contents of an encoded track in order: every point, then every skip
+    public interface TrackVisitor {
+        void onPoint(double latitude, double longitude);
+        void onSkip(int index);
+    }
+
+    // ENCODE---------------------------------------------------------------------------------------
+
+    public static byte[] encode(ArrayList<LatLng> coordinates, ArrayList<Integer> skips) {
+        TrackBuffer track = new TrackBuffer(coordinates.size());
+        for (LatLng coordinate : coordinates) {
+            track.append(coordinate.latitude, coordinate.longitude, 0, 0);
+        }
+        for (Integer skip : skips) {
+            track.addSkip(skip);
+        }
+        return encode(track);
+    }
+
+    // Only the latitude, longitude and skips of the track are kept
+    public static byte[] encode(Track track) {
+        int count = track.size();
+        int skipCount = track.getSkipCount();
+        // Most points take two to four bytes, so this is rarely grown
+        ByteSink out = new ByteSink(16 + count * 4 + skipCount * 2);
+        out.write(FORMAT_VERSION);
+
+        out.writeVarint(count);
+        int previousLat = 0;
+        int previousLon = 0;
+        for (int i = 0; i < count; i++) {
+            int lat = toFixed(track.getLatitude(i));
+            int lon = toFixed(track.getLongitude(i));
+            out.writeVarint(zigzag(lat - previousLat));
+            out.writeVarint(zigzag(lon - previousLon));
+            previousLat = lat;
+            previousLon = lon;
+        }
+
+        out.writeVarint(skipCount);
+        int previousSkip = 0;
+        for (int i = 0; i < skipCount; i++) {
+            int skip = track.getSkip(i);
+            out.writeVarint(zigzag(skip - previousSkip));
+            previousSkip = skip;
+        }
+        return out.toByteArray();
+    }
+
+    // DECODE---------------------------------------------------------------------------------------
+
+    public static void decode(byte[] track, TrackVisitor visitor) {
+        ByteSource in = new ByteSource(track);
+        int version = in.read();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("unsupported track format version " + version);
+        }
+
+        int count = in.readVarint();
+        int lat = 0;
+        int lon = 0;
+        for (int i = 0; i < count; i++) {
+            lat += unzigzag(in.readVarint());
+            lon += unzigzag(in.readVarint());
+            visitor.onPoint(lat / SCALE, lon / SCALE);
+        }
+
+        int skipCount = in.readVarint();
+        int skip = 0;
+        for (int i = 0; i < skipCount; i++) {
+            skip += unzigzag(in.readVarint());
+            visitor.onSkip(skip);
+        }
+    }
+
+    // Decodes the points of an encoded track a chunk at a time.  Each point's position depends on
+    // every point before it, so they can only be read in order, but the skips (stored after the
+    // points) are found up front by stepping over the points' bytes without decoding them.
+    public static class Reader {
+        private final ByteSource mIn;
+        private final int mCount;
+        private final int[] mSkips;
+        private int mRead = 0;
+        private int mLat = 0;
+        private int mLon = 0;
+
+        public Reader(byte[] track) {
+            mIn = new ByteSource(track);
+            int version = mIn.read();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("unsupported track format version " + version);
+            }
+            mCount = mIn.readVarint();
+            int pointsStart = mIn.getPosition();
+            for (int i = 0; i < mCount * 2; i++) {
+                mIn.skipVarint();
+            }
+
+            mSkips = new int[mIn.readVarint()];
+            int skip = 0;
+            for (int i = 0; i < mSkips.length; i++) {
+                skip += unzigzag(mIn.readVarint());
+                mSkips[i] = skip;
+            }
+            mIn.setPosition(pointsStart);
+        }
+
+        // Getter Methods
+        public int size() { return mCount; }
+        public int getSkipCount() { return mSkips.length; }
+        public int getSkip(int i) { return mSkips[i]; }
+        public boolean hasMore() { return mRead < mCount; }
+
+        // Hand up to max more points to visitor.onPoint, returning how many there were
+        public int read(int max, TrackVisitor visitor) {
+            int end = Math.min(mCount, mRead + max);
+            int read = end - mRead;
+            for (; mRead < end; mRead++) {
+                mLat += unzigzag(mIn.readVarint());
+                mLon += unzigzag(mIn.readVarint());
+                visitor.onPoint(mLat / SCALE, mLon / SCALE);
+            }
+            return read;
+        }
+    }
+
+    public static ArrayList<LatLng> decodeCoordinates(byte[] track) {
+        final ArrayList<LatLng> coordinates = new ArrayList<LatLng>();
+        decode(track, new TrackVisitor() {
+            @Override
+            public void onPoint(double latitude, double longitude) {
+                coordinates.add(new LatLng(latitude, longitude));
+            }
+            @Override
+            public void onSkip(int index) { }
+        });
+        return coordinates;
+    }
+
+    public static ArrayList<Integer> decodeSkips(byte[] track) {
+        final ArrayList<Integer> skips = new ArrayList<Integer>();
+        decode(track, new TrackVisitor() {
+            @Override
+            public void onPoint(double latitude, double longitude) { }
+            @Override
+            public void onSkip(int index) {
+                skips.add(index);
+            }
+        });
+        return skips;
+    }
+
+    // HELPERS--------------------------------------------------------------------------------------
+
+    private static int toFixed(double degrees) {
+        return (int) Math.round(degrees * SCALE);
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    // A growable byte array that knows how to write varints
+    private static class ByteSink {
+        private byte[] mBytes;
+        private int mLength = 0;
+
+        ByteSink(int capacity) {
+            mBytes = new byte[capacity];
+        }
+
+        void write(int b) {
+            if (mLength == mBytes.length) {
+                byte[] grown = new byte[mBytes.length * 2];
+                System.arraycopy(mBytes, 0, grown, 0, mLength);
+                mBytes = grown;
+            }
+            mBytes[mLength] = (byte) b;
+            mLength += 1;
+        }
+
+        void writeVarint(int value) {
+            while ((value & ~0x7F) != 0) {
+                write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            write(value);
+        }
+
+        byte[] toByteArray() {
+            byte[] result = new byte[mLength];
+            System.arraycopy(mBytes, 0, result, 0, mLength);
+            return result;
+        }
+    }
+
+    // Reads bytes and varints back out of an encoded track
+    private static class ByteSource {
+        private final byte[] mBytes;
+        private int mPosition = 0;
+
+        ByteSource(byte[] bytes) {
+            mBytes = bytes;
+        }
+
+        int read() {
+            if (mPosition >= mBytes.length) {
+                throw new IllegalArgumentException("track ended after " + mPosition + " bytes");
+            }
+            int b = mBytes[mPosition] & 0xFF;
+            mPosition += 1;
+            return b;
+        }
+
+        int readVarint() {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = read();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("malformed varint at byte " + mPosition);
+        }
+
+        // Step over a varint without working out its value
+        void skipVarint() {
+            for (int shift = 0; shift < 35; shift += 7) {
+                if ((read() & 0x80) == 0) {
+                    return;
+                }
+            }
+            throw new IllegalArgumentException("malformed varint at byte " + mPosition);
+        }
+
+        int getPosition() { return mPosition; }
+        void setPosition(int position) { mPosition = position; }
+    }
+}
@@ -0,0 +1,127 @@
+package fit3037.dmmic2.dungeonrunner;
+
+import java.nio.ByteBuffer;
+
+/*
+* A track at a few levels of detail, so the map only draws as many points as can be told apart at
+* its zoom.  The coarser levels are the track simplified (see TrackSimplifier) to each of
+* TOLERANCES, and the finest level is the track itself.  A marathon seen whole is then a few
+* hundred points rather than tens of thousands.
+*
+* The simplified levels are worked out once, when a record is saved, and kept in the detailLevels
+* column of dungeonRecords so opening a record costs nothing extra:
+*
+*         ---Format (version 1)---
+*
+* byte          FORMAT_VERSION
+* byte          number of simplified levels, coarsest first
+*               then for each level:
+* short         its tolerance in metres
+* int           the length of its track
+* bytes         its track, encoded by TrackCodec
+*
+* The map picks a level with levelForZoom: the coarsest whose tolerance is within MAX_ERROR_DP of a
+* pixel at the current zoom, as a line drawn TrackRenderer.LINE_WIDTH wide hides any error smaller
+* than that.
+* */
+
+public class TrackDetailLevels {
+
+    public static final int FORMAT_VERSION = 1;
+
+    // Tolerances (m) of the simplified levels, coarsest first
+    static final int[] TOLERANCES = {50, 15, 5};
+    // Largest error (dp) a level is allowed to show on screen
+    static final double MAX_ERROR_DP = 2;
+    // Size of a dp on the ground at the equator at zoom 0, halving with every zoom level after
+    private static final double METRES_PER_DP_AT_ZOOM_0 = 156543.03392;
+
+    // coarsest first, the track itself last
+    private final Track[] mLevels;
+    private final int[] mTolerances;
+
+    private TrackDetailLevels(Track[] levels, int[] tolerances) {
+        mLevels = levels;
+        mTolerances = tolerances;
+    }
+
+    // Work the levels out from track
+    public static TrackDetailLevels build(Track track) {
+        Track[] levels = new Track[TOLERANCES.length + 1];
+        int[] tolerances = new int[TOLERANCES.length + 1];
+        for (int i = 0; i < TOLERANCES.length; i++) {
+            levels[i] = TrackSimplifier.simplify(track, TOLERANCES[i]);
+            tolerances[i] = TOLERANCES[i];
+        }
+        levels[TOLERANCES.length] = track;
+        return new TrackDetailLevels(levels, tolerances);
+    }
+
+    // Work out the simplified levels of track and encode them, ready for the detailLevels column
+    public static byte[] encode(Track track) {
+        byte[][] encoded = new byte[TOLERANCES.length][];
+        int length = 2;
+        for (int i = 0; i < TOLERANCES.length; i++) {
+            encoded[i] = TrackCodec.encode(TrackSimplifier.simplify(track, TOLERANCES[i]));
+            length += 2 + 4 + encoded[i].length;
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(length);
+        out.put((byte) FORMAT_VERSION);
+        out.put((byte) TOLERANCES.length);
+        for (int i = 0; i < TOLERANCES.length; i++) {
+            out.putShort((short) TOLERANCES[i]);
+            out.putInt(encoded[i].length);
+            out.put(encoded[i]);
+        }
+        return out.array();
+    }
+
+    // The levels of track from what encode made of it.  Records saved before there were levels
+    // (or not yet reached by DatabaseMigrations) have none stored, so they are worked out here.
+    public static TrackDetailLevels decode(byte[] detailLevels, Track track) {
+        if (detailLevels == null) {
+            return build(track);
+        }
+        ByteBuffer in = ByteBuffer.wrap(detailLevels);
+        int version = in.get();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("unsupported detail levels format version " +
+                    version);
+        }
+        int count = in.get();
+        Track[] levels = new Track[count + 1];
+        int[] tolerances = new int[count + 1];
+        for (int i = 0; i < count; i++) {
+            tolerances[i] = in.getShort();
+            byte[] encoded = new byte[in.getInt()];
+            in.get(encoded);
+            levels[i] = TrackBuffer.decode(encoded);
+        }
+        levels[count] = track;
+        return new TrackDetailLevels(levels, tolerances);
+    }
+
+    // Getter Methods
+    public int size() { return mLevels.length; }
+    public Track getLevel(int level) { return mLevels[level]; }
+    // 0 for the track itself
+    public int getTolerance(int level) { return mTolerances[level]; }
+
+    // The coarsest level that looks the same as the track itself at zoom, around latitude
+    public int levelForZoom(float zoom, double latitude) {
+        double metresPerDp = METRES_PER_DP_AT_ZOOM_0 * Math.cos(Math.toRadians(latitude))
+                / Math.pow(2, zoom);
+        return levelForError(metresPerDp * MAX_ERROR_DP);
+    }
+
+    // The coarsest level that is never more than metres off the track itself
+    public int levelForError(double metres) {
+        for (int i = 0; i < mLevels.length - 1; i++) {
+            if (mTolerances[i] <= metres) {
+                return i;
+            }
+        }
+        return mLevels.length - 1;
+    }
+}
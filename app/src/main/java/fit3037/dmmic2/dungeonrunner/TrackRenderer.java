@@ -0,0 +1,190 @@
+package fit3037.dmmic2.dungeonrunner;
+
+import android.graphics.Color;
+import android.os.Handler;
+import android.os.Looper;
+
+import com.google.android.gms.maps.model.LatLng;
+import com.google.android.gms.maps.model.PolylineOptions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/*
+* Turns a Track into the lines the map draws: one polyline for each stretch of the run between
+* pauses, rather than one for every pair of points, so even a marathon is only a handful of map
+* overlays.  The lines are built in a single pass over the track on a background thread, and only
+* handed to the map (GoogleMap.addPolyline, which has to be on the main thread) once they are ready.
+* They are built for every level of detail of the track at once, so the map can swap between them
+* as it zooms without waiting on anything.
+*
+* A stored track can also be streamed (streamInBackground): decoded on the same background thread
+* a chunk at a time, each chunk twice the size of the one before, and handed to the map as it goes.
+* The start of the route is on screen after the first FIRST_CHUNK_POINTS points rather than after
+* all of them, and there are only a handful of chunks even for a marathon.
+* */
+
+public class TrackRenderer {
+
+    static final float LINE_WIDTH = 10;
+    static final int LINE_COLOR = Color.BLACK;
+    static final int FIRST_CHUNK_POINTS = 256;
+
+    private static ExecutorService sWorker;
+
+    // The lines for every level of detail of a track, coarsest first (see TrackDetailLevels)
+    public static class Rendering {
+        private final TrackDetailLevels mLevels;
+        private final ArrayList<ArrayList<PolylineOptions>> mLines;
+
+        Rendering(TrackDetailLevels levels, ArrayList<ArrayList<PolylineOptions>> lines) {
+            mLevels = levels;
+            mLines = lines;
+        }
+
+        public TrackDetailLevels getLevels() { return mLevels; }
+        public ArrayList<PolylineOptions> getLines(int level) { return mLines.get(level); }
+    }
+
+    // Receives a streamed track on the main thread, first in pieces and then whole
+    public interface StreamListener {
+        // The next points of the track, split where the run was paused.  The first piece carries
+        // on the last stretch handed over if continuesLast is set, every other piece starts a new
+        // stretch.
+        void onPoints(ArrayList<ArrayList<LatLng>> pieces, boolean continuesLast);
+        // The whole track, decoded, and its lines for every level of detail
+        void onRendered(Track track, Rendering rendering);
+    }
+
+    // Decode encoded (see TrackCodec) in the background, handing its points to listener a chunk at
+    // a time, then build its lines for every level of detail as buildInBackground does
+    public static void streamInBackground(final byte[] encoded, final byte[] detailLevels,
+            final StreamListener listener) {
+        final Handler mainHandler = new Handler(Looper.getMainLooper());
+        getWorker().execute(new Runnable() {
+            @Override
+            public void run() {
+                TrackCodec.Reader reader = new TrackCodec.Reader(encoded);
+                final TrackBuffer track = new TrackBuffer(reader.size());
+                for (int s = 0; s < reader.getSkipCount(); s++) {
+                    track.addSkip(reader.getSkip(s));
+                }
+                TrackCodec.TrackVisitor append = new TrackCodec.TrackVisitor() {
+                    @Override
+                    public void onPoint(double latitude, double longitude) {
+                        track.append(latitude, longitude, 0, 0);
+                    }
+                    @Override
+                    public void onSkip(int index) { }
+                };
+
+                int chunk = FIRST_CHUNK_POINTS;
+                int skip = 0;
+                while (reader.hasMore()) {
+                    int first = track.size();
+                    reader.read(chunk, append);
+                    chunk *= 2;
+
+                    // split the new points after each skip among them
+                    final boolean continuesLast = first > 0 &&
+                            (skip == 0 || track.getSkip(skip - 1) != first - 1);
+                    final ArrayList<ArrayList<LatLng>> pieces = new ArrayList<ArrayList<LatLng>>();
+                    ArrayList<LatLng> piece = null;
+                    for (int i = first; i < track.size(); i++) {
+                        if (piece == null) {
+                            piece = new ArrayList<LatLng>();
+                            pieces.add(piece);
+                        }
+                        piece.add(new LatLng(track.getLatitude(i), track.getLongitude(i)));
+                        while (skip < track.getSkipCount() && track.getSkip(skip) <= i) {
+                            skip += 1;
+                            piece = null;
+                        }
+                    }
+                    mainHandler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            listener.onPoints(pieces, continuesLast);
+                        }
+                    });
+                }
+
+                final Rendering rendering = render(track, detailLevels);
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        listener.onRendered(track, rendering);
+                    }
+                });
+            }
+        });
+    }
+
+    // Decode the levels of detail of track (worked out from it if detailLevels is null) and build
+    // the lines for each of them in the background, then hand them back on the main thread
+    public static void buildInBackground(final Track track, final byte[] detailLevels,
+            final DungeonRepository.ResultCallback<Rendering> callback) {
+        final Handler mainHandler = new Handler(Looper.getMainLooper());
+        getWorker().execute(new Runnable() {
+            @Override
+            public void run() {
+                final Rendering rendering = render(track, detailLevels);
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        callback.onResult(rendering);
+                    }
+                });
+            }
+        });
+    }
+
+    private static Rendering render(Track track, byte[] detailLevels) {
+        TrackDetailLevels levels = TrackDetailLevels.decode(detailLevels, track);
+        ArrayList<ArrayList<PolylineOptions>> lines =
+                new ArrayList<ArrayList<PolylineOptions>>(levels.size());
+        for (int i = 0; i < levels.size(); i++) {
+            lines.add(build(levels.getLevel(i)));
+        }
+        return new Rendering(levels, lines);
+    }
+
+    // One polyline per stretch between pauses.  A stretch of a single point (e.g. paused straight
+    // after resuming) has nothing to draw, so it is left out.
+    static ArrayList<PolylineOptions> build(Track track) {
+        ArrayList<PolylineOptions> lines = new ArrayList<PolylineOptions>(track.getSkipCount() + 1);
+        int start = 0;
+        for (int s = 0; s <= track.getSkipCount(); s++) {
+            // the last stretch runs to the end of the track
+            int end = (s < track.getSkipCount()) ? track.getSkip(s) : track.size() - 1;
+            if (end - start >= 1) {
+                lines.add(line(track, start, end));
+            }
+            start = Math.max(start, end + 1);
+        }
+        return lines;
+    }
+
+    private static PolylineOptions line(Track track, int first, int last) {
+        ArrayList<LatLng> points = new ArrayList<LatLng>(last - first + 1);
+        for (int i = first; i <= last; i++) {
+            points.add(new LatLng(track.getLatitude(i), track.getLongitude(i)));
+        }
+        return line(points);
+    }
+
+    static PolylineOptions line(List<LatLng> points) {
+        return new PolylineOptions().addAll(points).width(LINE_WIDTH).color(LINE_COLOR)
+                .geodesic(true);
+    }
+
+    private static synchronized ExecutorService getWorker() {
+        if (sWorker == null) {
+            sWorker = Executors.newSingleThreadExecutor(
+                    new DungeonRepository.BackgroundThreadFactory("Track render"));
+        }
+        return sWorker;
+    }
+}
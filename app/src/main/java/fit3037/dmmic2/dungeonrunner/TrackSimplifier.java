@@ -0,0 +1,121 @@
+package fit3037.dmmic2.dungeonrunner;
+
+/*
+* Thins a track out to the points that matter at a given tolerance, using the Douglas-Peucker
+* algorithm: a stretch of points is replaced by a straight line from its first to its last point,
+* unless some point in between is further than the tolerance from that line, in which case the
+* stretch is split at the furthest point and each half is dealt with the same way.  No point of the
+* original is ever further than the tolerance from the simplified track.
+*
+* Each stretch of the run between pauses is simplified on its own, so the pauses stay exactly where
+* they were.  Splitting is done with an explicit stack of stretches rather than by recursion, so a
+* long run can't overflow the stack.
+*
+* Distances are measured on a flat projection around the start of each stretch, which is plenty
+* accurate over the few kilometres a single line can cover.
+* */
+
+public class TrackSimplifier {
+
+    private static final double METRES_PER_DEGREE = 111320;
+
+    // A copy of track keeping only the points needed to stay within toleranceMetres of it, along
+    // with its skips.  Altitudes and times are not kept.
+    public static TrackBuffer simplify(Track track, double toleranceMetres) {
+        int size = track.size();
+        boolean[] keep = new boolean[size];
+        int[] stack = new int[64];
+
+        int start = 0;
+        for (int s = 0; s <= track.getSkipCount(); s++) {
+            int end = (s < track.getSkipCount()) ? track.getSkip(s) : size - 1;
+            if (end >= start) {
+                stack = markStretch(track, start, end, toleranceMetres, keep, stack);
+            }
+            start = Math.max(start, end + 1);
+        }
+
+        TrackBuffer simplified = new TrackBuffer();
+        int skip = 0;
+        for (int i = 0; i < size; i++) {
+            if (keep[i]) {
+                simplified.append(track.getLatitude(i), track.getLongitude(i), 0, 0);
+            }
+            // the end of every stretch is always kept, so it is the last point added
+            while (skip < track.getSkipCount() && track.getSkip(skip) == i) {
+                if (simplified.size() != 0) {
+                    simplified.addSkip(simplified.size() - 1);
+                }
+                skip += 1;
+            }
+        }
+        return simplified;
+    }
+
+    // Mark the points of first..last that the simplified track needs.  Returns the stack, which is
+    // grown as needed and reused for the next stretch.
+    private static int[] markStretch(Track track, int first, int last, double tolerance,
+            boolean[] keep, int[] stack) {
+        keep[first] = true;
+        keep[last] = true;
+        double cosLatitude = Math.cos(Math.toRadians(track.getLatitude(first)));
+        double toleranceSquared = tolerance * tolerance;
+
+        int top = 0;
+        stack[top++] = first;
+        stack[top++] = last;
+        while (top > 0) {
+            int to = stack[--top];
+            int from = stack[--top];
+            if (to - from < 2) {
+                continue;
+            }
+
+            // the line from..to, in metres relative to from
+            double lineX = (track.getLongitude(to) - track.getLongitude(from)) * cosLatitude
+                    * METRES_PER_DEGREE;
+            double lineY = (track.getLatitude(to) - track.getLatitude(from)) * METRES_PER_DEGREE;
+            double lineLengthSquared = lineX * lineX + lineY * lineY;
+
+            int furthest = -1;
+            double furthestSquared = toleranceSquared;
+            for (int i = from + 1; i < to; i++) {
+                double x = (track.getLongitude(i) - track.getLongitude(from)) * cosLatitude
+                        * METRES_PER_DEGREE;
+                double y = (track.getLatitude(i) - track.getLatitude(from)) * METRES_PER_DEGREE;
+                double distanceSquared = distanceToLineSquared(x, y, lineX, lineY,
+                        lineLengthSquared);
+                if (distanceSquared > furthestSquared) {
+                    furthest = i;
+                    furthestSquared = distanceSquared;
+                }
+            }
+
+            if (furthest >= 0) {
+                keep[furthest] = true;
+                if (top + 4 > stack.length) {
+                    int[] grown = new int[stack.length * 2];
+                    System.arraycopy(stack, 0, grown, 0, top);
+                    stack = grown;
+                }
+                stack[top++] = from;
+                stack[top++] = furthest;
+                stack[top++] = furthest;
+                stack[top++] = to;
+            }
+        }
+        return stack;
+    }
+
+    // Squared distance from (x, y) to the line segment from the origin to (lineX, lineY)
+    static double distanceToLineSquared(double x, double y, double lineX, double lineY,
+            double lineLengthSquared) {
+        double t = 0;
+        if (lineLengthSquared > 0) {
+            t = Math.max(0, Math.min(1, (x * lineX + y * lineY) / lineLengthSquared));
+        }
+        double dx = x - t * lineX;
+        double dy = y - t * lineY;
+        return dx * dx + dy * dy;
+    }
+}
@@ -0,0 +1,53 @@
+package fit3037.dmmic2.dungeonrunner;
+
+import java.util.HashMap;
+
+/*
+* Holds tracks in memory for the life of the process, so screens can hand a track to each other as
+* a small id instead of as an Intent extra.  A long run as a Parcelable extra can go past the
+* roughly 1MB limit on what an Intent can carry between activities, and even when it fits it is
+* copied out and back in on the main thread.
+*
+* Whoever puts a track in is responsible for removing it when the screens using it are done with
+* it.  Since nothing here outlives the process, a screen recreated after the process was killed
+* will find its id missing from the store and has to cope with that (a run in progress can still
+* be recovered from its RunJournal).
+* */
+
+public class TrackStore {
+
+    // An id that never refers to a track, for use as an Intent extra default
+    public static final long NO_TRACK = -1;
+
+    private static TrackStore sInstance;
+
+    private HashMap<Long, Track> mTracks = new HashMap<Long, Track>();
+    private long mNextId = 1;
+
+    public static synchronized TrackStore getInstance() {
+        if (sInstance == null) {
+            sInstance = new TrackStore();
+        }
+        return sInstance;
+    }
+
+    private TrackStore() { }
+
+    // Keep track and return the id to fetch it by
+    public synchronized long put(Track track) {
+        long id = mNextId;
+        mNextId += 1;
+        mTracks.put(id, track);
+        return id;
+    }
+
+    // The track with the given id, or null if there isn't one (e.g. the process has been
+    // restarted since it was put here)
+    public synchronized Track get(long id) {
+        return mTracks.get(id);
+    }
+
+    public synchronized void remove(long id) {
+        mTracks.remove(id);
+    }
+}
@@ -0,0 +1,327 @@
+package fit3037.dmmic2.dungeonrunner;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.LruCache;
+import android.widget.ImageView;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+* Route thumbnails for the Dungeon Journal list, keyed by record id, so scrolling the journal never
+* builds a map per row.  A thumbnail is looked for in three places, cheapest first:
+*
+*       memory      an LruCache of bitmaps, bounded to 1/MEMORY_FRACTION of the heap
+*       disk        PNGs under the app's cache folder, least recently used deleted first once
+*                   they pass DISK_CACHE_BYTES (the OS may also clear them whenever it likes)
+*       drawn       the record's track read from the database and drawn by
+*                   TrackThumbnailRenderer
+*
+* Anything past memory happens on one background thread, and the image view is filled in once it
+* is ready.  List rows are recycled, so each image view is only ever filled with the thumbnail of
+* the record it was last asked to show, and thumbnails for rows that have scrolled away before the
+* background thread got to them are not drawn at all.
+*
+* Recorded tracks never change, so a thumbnail only goes stale when its record is removed, or when
+* all data is reset and record ids start over.  DatabaseHelper calls remove and clear for those.
+* */
+
+public class TrackThumbnailCache {
+
+    // Size of a thumbnail and the width of its line
+    static final int SIZE_DP = 64;
+    static final float LINE_WIDTH_DP = 2;
+    static final int LINE_COLOR = TrackRenderer.LINE_COLOR;
+
+    private static final int MEMORY_FRACTION = 16;
+    static final long DISK_CACHE_BYTES = 4 * 1024 * 1024;
+    static final String DIRECTORY = "trackThumbnails";
+    private static final String EXTENSION = ".png";
+
+    private static TrackThumbnailCache sInstance;
+
+    private final DatabaseHelper mDBHelper;
+    private final File mDirectory;
+    private final int mSize;
+    private final float mLineWidth;
+    private final LruCache<Long, Bitmap> mMemory;
+    private final ExecutorService mWorker;
+    private final Handler mMainHandler;
+
+    // Background thread only: the size of each file on disk by record id, least recently used
+    // first, and their total.  Read from the folder the first time it is needed.
+    private LinkedHashMap<Long, Long> mDiskIndex;
+    private long mDiskBytes;
+
+    // Main thread only: the record each image view was last asked to show
+    private final WeakHashMap<ImageView, Long> mViews = new WeakHashMap<ImageView, Long>();
+    // Records some image view is waiting on.  The background thread skips any no longer here.
+    private final Set<Long> mWanted = Collections.synchronizedSet(new HashSet<Long>());
+    // Bumped by clear, so that thumbnails of records from before it are thrown away
+    private final AtomicInteger mGeneration = new AtomicInteger();
+
+    public static synchronized TrackThumbnailCache getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new TrackThumbnailCache(context.getApplicationContext());
+        }
+        return sInstance;
+    }
+
+    private TrackThumbnailCache(Context context) {
+        mDBHelper = DatabaseHelper.getInstance(context);
+        mDirectory = new File(context.getCacheDir(), DIRECTORY);
+        float density = context.getResources().getDisplayMetrics().density;
+        mSize = Math.round(SIZE_DP * density);
+        mLineWidth = LINE_WIDTH_DP * density;
+        mMemory = new LruCache<Long, Bitmap>((int) (Runtime.getRuntime().maxMemory()
+                / MEMORY_FRACTION)) {
+            @Override
+            protected int sizeOf(Long recordId, Bitmap bitmap) {
+                return bitmap.getByteCount();
+            }
+        };
+        mWorker = Executors.newSingleThreadExecutor(
+                new DungeonRepository.BackgroundThreadFactory("Track thumbnails"));
+        mMainHandler = new Handler(Looper.getMainLooper());
+    }
+
+    // Show the thumbnail of a record in view, straight away if it is in memory, otherwise once it
+    // has been read or drawn (the view is left empty meanwhile).  Main thread only.
+    public void load(final long recordId, ImageView view) {
+        forget(view, recordId);
+        mViews.put(view, recordId);
+        Bitmap bitmap = mMemory.get(recordId);
+        view.setImageBitmap(bitmap);
+        if (bitmap != null || !mWanted.add(recordId)) {
+            return;
+        }
+
+        final int generation = mGeneration.get();
+        mWorker.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (!mWanted.contains(recordId)) {
+                    return;
+                }
+                final Bitmap found = readOrDraw(recordId, generation);
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        mWanted.remove(recordId);
+                        if (found == null || generation != mGeneration.get()) {
+                            return;
+                        }
+                        mMemory.put(recordId, found);
+                        for (Map.Entry<ImageView, Long> entry : mViews.entrySet()) {
+                            if (entry.getValue() == recordId) {
+                                entry.getKey().setImageBitmap(found);
+                            }
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    // Empty view and stop waiting on whatever it was going to show.  Main thread only.
+    public void cancel(ImageView view) {
+        forget(view, -1);
+        mViews.remove(view);
+        view.setImageBitmap(null);
+    }
+
+    // Drop the thumbnail of a removed record.  Any thread.
+    public void remove(final long recordId) {
+        mMemory.remove(recordId);
+        mWorker.execute(new Runnable() {
+            @Override
+            public void run() {
+                loadDiskIndex();
+                deleteFromDisk(recordId);
+            }
+        });
+    }
+
+    // Drop every thumbnail, including any being drawn right now.  Any thread.
+    public void clear() {
+        mGeneration.incrementAndGet();
+        mMemory.evictAll();
+        mWorker.execute(new Runnable() {
+            @Override
+            public void run() {
+                loadDiskIndex();
+                Iterator<Long> ids = mDiskIndex.keySet().iterator();
+                while (ids.hasNext()) {
+                    deleteFile(ids.next());
+                    ids.remove();
+                }
+                mDiskBytes = 0;
+            }
+        });
+    }
+
+    // HELPERS--------------------------------------------------------------------------------------
+
+    // Stop waiting on the record view was showing, unless it is nextRecordId or another view
+    // still wants it
+    private void forget(ImageView view, long nextRecordId) {
+        Long previous = mViews.get(view);
+        if (previous == null || previous == nextRecordId) {
+            return;
+        }
+        mViews.remove(view);
+        if (!mViews.containsValue(previous)) {
+            mWanted.remove(previous);
+        }
+    }
+
+    // The thumbnail from disk, or drawn (and saved) if it isn't there.  Null if the record no
+    // longer exists.
+    private Bitmap readOrDraw(long recordId, int generation) {
+        loadDiskIndex();
+        Bitmap bitmap = readFromDisk(recordId);
+        if (bitmap != null) {
+            return bitmap;
+        }
+        TrackDetailLevels levels = mDBHelper.getDungeonRecordDetailLevels(recordId);
+        if (levels == null) {
+            return null;
+        }
+        bitmap = TrackThumbnailRenderer.render(levels, mSize, mLineWidth, LINE_COLOR);
+        if (generation == mGeneration.get()) {
+            writeToDisk(recordId, bitmap);
+        }
+        return bitmap;
+    }
+
+    private Bitmap readFromDisk(long recordId) {
+        // looking it up marks it as the most recently used
+        if (mDiskIndex.get(recordId) == null) {
+            return null;
+        }
+        File file = fileFor(recordId);
+        Bitmap bitmap = BitmapFactory.decodeFile(file.getPath());
+        if (bitmap == null) {
+            // gone or unreadable, so it is drawn again
+            deleteFromDisk(recordId);
+            return null;
+        }
+        // so the order survives to the next time the index is read from the folder
+        file.setLastModified(System.currentTimeMillis());
+        return bitmap;
+    }
+
+    // Write to a temporary file and move it into place, so a half written thumbnail is never read
+    private void writeToDisk(long recordId, Bitmap bitmap) {
+        File temporary = new File(mDirectory, recordId + ".tmp");
+        File file = fileFor(recordId);
+        try {
+            FileOutputStream out = new FileOutputStream(temporary);
+            try {
+                bitmap.compress(Bitmap.CompressFormat.PNG, 100, out);
+            } finally {
+                out.close();
+            }
+            if (!temporary.renameTo(file)) {
+                throw new IOException("couldn't move " + temporary + " into place");
+            }
+        } catch (IOException e) {
+            Log.d("TRACK THUMBNAILS", "couldn't save thumbnail: " + e.getMessage());
+            temporary.delete();
+            return;
+        }
+
+        Long replaced = mDiskIndex.put(recordId, file.length());
+        mDiskBytes += file.length() - (replaced == null ? 0 : replaced);
+        Iterator<Map.Entry<Long, Long>> eldest = mDiskIndex.entrySet().iterator();
+        while (mDiskBytes > DISK_CACHE_BYTES && eldest.hasNext()) {
+            Map.Entry<Long, Long> entry = eldest.next();
+            deleteFile(entry.getKey());
+            mDiskBytes -= entry.getValue();
+            eldest.remove();
+        }
+    }
+
+    private void deleteFromDisk(long recordId) {
+        Long size = mDiskIndex.remove(recordId);
+        if (size != null) {
+            deleteFile(recordId);
+            mDiskBytes -= size;
+        }
+    }
+
+    private void deleteFile(long recordId) {
+        File file = fileFor(recordId);
+        if (!file.delete() && file.exists()) {
+            Log.d("TRACK THUMBNAILS", "couldn't delete " + file);
+        }
+    }
+
+    // Read what is already on disk, oldest first, clearing out anything that isn't a thumbnail
+    // (e.g. a temporary file left by the app being killed mid write)
+    private void loadDiskIndex() {
+        if (mDiskIndex != null) {
+            return;
+        }
+        mDiskIndex = new LinkedHashMap<Long, Long>(16, 0.75f, true);
+        mDiskBytes = 0;
+        if (!mDirectory.isDirectory() && !mDirectory.mkdirs()) {
+            Log.d("TRACK THUMBNAILS", "couldn't create " + mDirectory);
+            return;
+        }
+        File[] files = mDirectory.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File a, File b) {
+                long difference = a.lastModified() - b.lastModified();
+                return difference < 0 ? -1 : (difference > 0 ? 1 : 0);
+            }
+        });
+        for (File file : files) {
+            Long recordId = recordIdOf(file);
+            if (recordId == null) {
+                file.delete();
+                continue;
+            }
+            mDiskIndex.put(recordId, file.length());
+            mDiskBytes += file.length();
+        }
+    }
+
+    private File fileFor(long recordId) {
+        return new File(mDirectory, recordId + EXTENSION);
+    }
+
+    private static Long recordIdOf(File file) {
+        String name = file.getName();
+        if (!name.endsWith(EXTENSION)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(name.substring(0, name.length() - EXTENSION.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
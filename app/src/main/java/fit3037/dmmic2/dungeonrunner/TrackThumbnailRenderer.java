@@ -0,0 +1,118 @@
+package fit3037.dmmic2.dungeonrunner;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+
+/*
+* Draws a track into a small square bitmap for the Dungeon Journal list, without a map: no network,
+* no tiles, just the route projected flat and scaled to fit.  It is meant for a background thread
+* (see TrackThumbnailCache, which keeps what it draws).
+*
+* The projection is equirectangular around the middle of the route, which is true to shape for
+* anything a single run can cover.  Only as much detail is drawn as a pixel can show: the coarsest
+* of the track's levels of detail (see TrackDetailLevels) that stays within a pixel of the route.
+* */
+
+public class TrackThumbnailRenderer {
+
+    private static final double METRES_PER_DEGREE = 111320;
+
+    // Draw the track in levels into a size x size bitmap, with a line lineWidth pixels wide in
+    // color on a transparent background.  An empty track gives an empty bitmap.
+    public static Bitmap render(TrackDetailLevels levels, int size, float lineWidth, int color) {
+        Bitmap bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+        Frame frame = Frame.fit(levels.getLevel(0), size, lineWidth);
+        if (frame == null) {
+            return bitmap;
+        }
+        // the finer level can stray outside the coarse one by its tolerance, so fit it again
+        Track track = levels.getLevel(levels.levelForError(frame.getMetresPerPixel()));
+        frame = Frame.fit(track, size, lineWidth);
+
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paint.setColor(color);
+        paint.setStyle(Paint.Style.STROKE);
+        paint.setStrokeWidth(lineWidth);
+        paint.setStrokeCap(Paint.Cap.ROUND);
+        paint.setStrokeJoin(Paint.Join.ROUND);
+
+        // one path with a separate run of lines for each stretch between pauses
+        Path path = new Path();
+        int skip = 0;
+        boolean newStretch = true;
+        for (int i = 0; i < track.size(); i++) {
+            float x = frame.x(track.getLongitude(i));
+            float y = frame.y(track.getLatitude(i));
+            if (newStretch) {
+                path.moveTo(x, y);
+            }
+            // a stretch of a single point is drawn as a dot
+            path.lineTo(x, y);
+            newStretch = skip < track.getSkipCount() && track.getSkip(skip) == i;
+            while (skip < track.getSkipCount() && track.getSkip(skip) == i) {
+                skip += 1;
+            }
+        }
+        new Canvas(bitmap).drawPath(path, paint);
+        return bitmap;
+    }
+
+    // Where each point of a track goes in a square of pixels: the route scaled to fill the square
+    // less a margin, keeping its shape, and centred
+    static class Frame {
+        private final double mCosLatitude;
+        private final double mPixelsPerDegree;
+        private final double mOriginX;
+        private final double mOriginY;
+
+        private Frame(double cosLatitude, double pixelsPerDegree, double originX, double originY) {
+            mCosLatitude = cosLatitude;
+            mPixelsPerDegree = pixelsPerDegree;
+            mOriginX = originX;
+            mOriginY = originY;
+        }
+
+        // The frame fitting track into size pixels with margin pixels spare on every side, or null
+        // if the track has no points
+        static Frame fit(Track track, int size, float margin) {
+            if (track.size() == 0) {
+                return null;
+            }
+            double south = track.getLatitude(0);
+            double north = south;
+            double west = track.getLongitude(0);
+            double east = west;
+            for (int i = 1; i < track.size(); i++) {
+                south = Math.min(south, track.getLatitude(i));
+                north = Math.max(north, track.getLatitude(i));
+                west = Math.min(west, track.getLongitude(i));
+                east = Math.max(east, track.getLongitude(i));
+            }
+
+            double cosLatitude = Math.cos(Math.toRadians((south + north) / 2));
+            double width = (east - west) * cosLatitude;
+            double height = north - south;
+            double room = size - 2 * margin;
+            // a single spot (or a run on the spot) has no extent, so any scale will do
+            double pixelsPerDegree = room / Math.max(Math.max(width, height), 1e-9);
+            // left and top edges, with the route centred along its shorter side
+            double originX = west * cosLatitude - (size - width * pixelsPerDegree) / 2
+                    / pixelsPerDegree;
+            double originY = north + (size - height * pixelsPerDegree) / 2 / pixelsPerDegree;
+            return new Frame(cosLatitude, pixelsPerDegree, originX, originY);
+        }
+
+        float x(double longitude) {
+            return (float) ((longitude * mCosLatitude - mOriginX) * mPixelsPerDegree);
+        }
+
+        // north is up, and pixel rows count down
+        float y(double latitude) {
+            return (float) ((mOriginY - latitude) * mPixelsPerDegree);
+        }
+
+        double getMetresPerPixel() { return METRES_PER_DEGREE / mPixelsPerDegree; }
+    }
+}
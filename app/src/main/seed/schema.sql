@@ -0,0 +1,89 @@
+-- Schema of the seed database that is generated at build time (see generateSeedDatabase in
+-- app/build.gradle) and copied into place on first launch by SeedDatabaseInstaller.
+--
+-- This must describe exactly the tables DatabaseHelper would create for the version given in
+-- user_version below, i.e. the CREATE_STATEMENTs of ItemDescriptor, Equipment, DungeonRecord and
+-- DungeonLevel, plus the CREATE_INDEX_STATEMENTs of Equipment and ItemDescriptor and the
+-- migrations table of DatabaseMigrations.  When DatabaseHelper.DATABASE_VERSION moves on this file
+-- can either be brought up to date (and user_version bumped), or left behind, in which case the
+-- usual onUpgrade path takes a freshly installed seed database the rest of the way.
+
+PRAGMA user_version = 6;
+
+CREATE TABLE android_metadata (locale TEXT DEFAULT 'en_US');
+INSERT INTO android_metadata VALUES ('en_US');
+
+CREATE TABLE itemDescriptors(
+    _id INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL,
+    descriptor TEXT NOT NULL,
+    type TEXT NOT NULL,
+    match TEXT NOT NULL,
+    armourBias INTEGER NOT NULL,
+    damageBias INTEGER NOT NULL,
+    strengthBias INTEGER NOT NULL,
+    agilityBias INTEGER NOT NULL,
+    intelligenceBias INTEGER NOT NULL
+);
+
+CREATE TABLE equipment(
+    _id INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL,
+    name TEXT NOT NULL,
+    type TEXT NOT NULL,
+    armour INTEGER NOT NULL,
+    damage INTEGER NOT NULL,
+    strength INTEGER NOT NULL,
+    agility INTEGER NOT NULL,
+    intelligence INTEGER NOT NULL,
+    description TEXT NOT NULL,
+    equipped INTEGER NOT NULL
+);
+
+CREATE TABLE dungeonRecords(
+    _id INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL,
+    date TEXT NOT NULL,
+    type TEXT NOT NULL,
+    outcome INTEGER NOT NULL,
+    distance INTEGER NOT NULL,
+    time INTEGER NOT NULL,
+    reward TEXT NOT NULL,
+    coordinates TEXT NOT NULL,
+    skips TEXT NOT NULL
+);
+
+CREATE TABLE dungeonLevels(
+    _id INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL,
+    name TEXT NOT NULL,
+    time INTEGER NOT NULL,
+    distance INTEGER NOT NULL,
+    pace REAL NOT NULL,
+    multiplier REAL NOT NULL
+);
+
+-- version 2
+CREATE INDEX equipment_type_equipped ON equipment(type, equipped);
+CREATE INDEX itemDescriptors_type_match ON itemDescriptors(type, match);
+
+-- version 3
+CREATE TABLE migrations(
+    name TEXT PRIMARY KEY NOT NULL,
+    lastId INTEGER NOT NULL,
+    done INTEGER NOT NULL
+);
+
+-- version 4
+ALTER TABLE dungeonRecords ADD COLUMN track BLOB;
+
+-- version 5
+ALTER TABLE dungeonRecords ADD COLUMN detailLevels BLOB;
+
+-- version 6
+ALTER TABLE dungeonRecords ADD COLUMN south REAL;
+ALTER TABLE dungeonRecords ADD COLUMN west REAL;
+ALTER TABLE dungeonRecords ADD COLUMN north REAL;
+ALTER TABLE dungeonRecords ADD COLUMN east REAL;
+ALTER TABLE dungeonRecords ADD COLUMN startLatitude REAL;
+ALTER TABLE dungeonRecords ADD COLUMN startLongitude REAL;
+ALTER TABLE dungeonRecords ADD COLUMN endLatitude REAL;
+ALTER TABLE dungeonRecords ADD COLUMN endLongitude REAL;
+ALTER TABLE dungeonRecords ADD COLUMN centroidLatitude REAL;
+ALTER TABLE dungeonRecords ADD COLUMN centroidLongitude REAL;
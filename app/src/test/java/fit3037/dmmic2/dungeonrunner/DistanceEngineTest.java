@@ -0,0 +1,128 @@
+package fit3037.dmmic2.dungeonrunner;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/*
+* Checks DistanceEngine's modes against known distances, and against Vincenty on marathon length
+* runs spaced the way SamplingPolicy asks for fixes: every 1.5s for a level with a pace to keep up,
+* every 4s and 10m for a distance only one.  How long each mode takes per fix is measured in
+* TrackBenchmark.
+* */
+
+public class DistanceEngineTest {
+
+    static final int[] MODES = {DistanceEngine.MODE_EQUIRECTANGULAR,
+            DistanceEngine.MODE_HAVERSINE, DistanceEngine.MODE_VINCENTY};
+    static final String[] MODE_NAMES = {"equirectangular", "haversine", "vincenty"};
+
+    static final double MELBOURNE_LATITUDE = -37.78098475;
+    static final double MELBOURNE_LONGITUDE = 145.11339419;
+    // as far from the equator as anyone is likely to run
+    private static final double TROMSO_LATITUDE = 69.6492;
+    private static final double TROMSO_LONGITUDE = 18.9553;
+
+    private static final double MARATHON_METRES = 42195;
+
+    @Test
+    public void vincentyMatchesKnownGeodesic() throws Exception {
+        // Flinders Peak to Buninyong, the worked example in Vincenty's paper
+        DistanceEngine engine = DistanceEngine.create(DistanceEngine.MODE_VINCENTY);
+        engine.next(dms(-37, 57, 3.72030), dms(144, 25, 29.52440), 0);
+        double distance = engine.next(dms(-37, 39, 10.15610), dms(143, 55, 35.38390), 0);
+        assertEquals(54972.271, distance, 0.001);
+    }
+
+    @Test
+    public void firstPointAfterResetIsZero() throws Exception {
+        for (int mode : MODES) {
+            DistanceEngine engine = DistanceEngine.create(mode);
+            assertEquals(0, engine.next(MELBOURNE_LATITUDE, MELBOURNE_LONGITUDE, 0), 0);
+            assertTrue(engine.next(MELBOURNE_LATITUDE + 1e-4, MELBOURNE_LONGITUDE, 0) > 0);
+            engine.reset();
+            assertEquals(0, engine.next(MELBOURNE_LATITUDE, MELBOURNE_LONGITUDE, 0), 0);
+            // the same point twice
+            assertEquals(0, engine.next(MELBOURNE_LATITUDE, MELBOURNE_LONGITUDE, 0), 0);
+        }
+    }
+
+    @Test
+    public void addsClimb() throws Exception {
+        for (int mode : MODES) {
+            DistanceEngine engine = DistanceEngine.create(mode);
+            engine.next(MELBOURNE_LATITUDE, MELBOURNE_LONGITUDE, 10);
+            assertEquals(3, engine.next(MELBOURNE_LATITUDE, MELBOURNE_LONGITUDE, 13), 1e-9);
+        }
+    }
+
+    @Test
+    public void crossesTheDateLine() throws Exception {
+        // 2e-5 degrees of longitude at the equator, about 2.2m
+        for (int mode : MODES) {
+            DistanceEngine engine = DistanceEngine.create(mode);
+            engine.next(0, 179.99999, 0);
+            assertEquals(2.2264, engine.next(0, -179.99999, 0), 0.01);
+        }
+    }
+
+    @Test
+    public void equirectangularIsAccurateEnoughForEveryDungeon() throws Exception {
+        double[][] places = {{MELBOURNE_LATITUDE, MELBOURNE_LONGITUDE},
+                {TROMSO_LATITUDE, TROMSO_LONGITUDE}};
+        String[] placeNames = {"Melbourne", "Tromso"};
+        // metres between fixes at a 12km/h run: every 1.5s for pace levels, every 4s for distance
+        // only ones
+        double[] spacings = {5, 13.3};
+        String[] spacingNames = {"pace level", "distance level"};
+
+        for (int p = 0; p < places.length; p++) {
+            for (int s = 0; s < spacings.length; s++) {
+                double[][] run = run(places[p][0], places[p][1], spacings[s], new Random(p * 2 + s));
+                double reference = total(DistanceEngine.MODE_VINCENTY, run);
+                double equirectangular = total(DistanceEngine.MODE_EQUIRECTANGULAR, run);
+                double haversine = total(DistanceEngine.MODE_HAVERSINE, run);
+                String where = placeNames[p] + ", " + spacingNames[s];
+                // under a metre over a marathon
+                assertEquals(where, reference, equirectangular, 1);
+                assertEquals(where, reference, haversine, reference * 0.005);
+            }
+        }
+    }
+
+    // A marathon of fixes spacing metres apart, wandering about from the given start with a little
+    // going up and down
+    static double[][] run(double latitude, double longitude, double spacing, Random random) {
+        int fixes = (int) (MARATHON_METRES / spacing);
+        double[][] run = new double[fixes][];
+        double bearing = random.nextDouble() * 2 * Math.PI;
+        double altitude = 50;
+        for (int i = 0; i < fixes; i++) {
+            run[i] = new double[]{latitude, longitude, altitude};
+            bearing += random.nextGaussian() * 0.2;
+            double north = Math.cos(bearing) * spacing;
+            double east = Math.sin(bearing) * spacing;
+            latitude += north / 111000;
+            longitude += east / (111000 * Math.cos(Math.toRadians(latitude)));
+            altitude += random.nextGaussian() * 0.3;
+        }
+        return run;
+    }
+
+    static double total(int mode, double[][] run) {
+        DistanceEngine engine = DistanceEngine.create(mode);
+        double total = 0;
+        for (double[] point : run) {
+            total += engine.next(point[0], point[1], point[2]);
+        }
+        return total;
+    }
+
+    // Degrees, minutes and seconds to decimal degrees
+    private static double dms(int degrees, int minutes, double seconds) {
+        double magnitude = Math.abs(degrees) + minutes / 60.0 + seconds / 3600.0;
+        return degrees < 0 ? -magnitude : magnitude;
+    }
+}
@@ -0,0 +1,162 @@
+package fit3037.dmmic2.dungeonrunner;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/*
+* Replays simulated runs through KalmanLocationFilter and compares the distance it gives against
+* the true distance, and against adding up the raw fixes the way the tracker used to.  The runs are
+* laps of a 200m x 100m block with a fix every 1.5s, as GPSService asks for, and noise much like a
+* phone's: a few metres on each fix, worse on altitude, a reported speed and bearing a little off,
+* and the odd fix that jumps tens of metres.
+*
+* Pace limited dungeons are the ones that noise decides, so the runs are "Raining Fire" (12km/h for
+* at least 20 minutes) run either side of the limit.
+* */
+
+public class LocationFilterTest {
+
+    private static final double START_LATITUDE = -37.8770;
+    private static final double START_LONGITUDE = 145.0443;
+    private static final double METRES_PER_DEGREE = 111320;
+
+    private static final long FIX_INTERVAL_MS = 1500;
+    private static final int RAINING_FIRE_SECONDS = 20 * 60;
+    private static final double RAINING_FIRE_PACE = 12;
+
+    @Test
+    public void filteredDistanceIsCloseToTrueDistance() throws Exception {
+        for (long seed = 1; seed <= 5; seed++) {
+            Replay replay = replay(12.5, RAINING_FIRE_SECONDS, seed);
+            assertEquals(replay.mTrueDistance, replay.mFilteredDistance,
+                    replay.mTrueDistance * 0.03);
+            // the raw fixes add up to far more than was run
+            assertTrue(replay.mRawDistance > replay.mTrueDistance * 1.5);
+        }
+    }
+
+    @Test
+    public void noiseDoesNotDecidePace() throws Exception {
+        // just too slow, which the raw fixes would have passed
+        Replay slow = replay(11.5, RAINING_FIRE_SECONDS, 7);
+        assertTrue(pace(slow.mRawDistance) >= RAINING_FIRE_PACE);
+        assertTrue(pace(slow.mFilteredDistance) < RAINING_FIRE_PACE);
+
+        // just quick enough
+        Replay quick = replay(12.5, RAINING_FIRE_SECONDS, 8);
+        assertTrue(pace(quick.mFilteredDistance) >= RAINING_FIRE_PACE);
+    }
+
+    @Test
+    public void standingStillAddsLittleDistance() throws Exception {
+        Replay replay = replay(0, 10 * 60, 3);
+        assertTrue(replay.mRawDistance > 1000);
+        assertTrue(replay.mFilteredDistance < 50);
+    }
+
+    @Test
+    public void rejectsInaccurateFixesAndJumps() throws Exception {
+        KalmanLocationFilter filter = new KalmanLocationFilter();
+        assertFalse(filter.accept(START_LATITUDE, START_LONGITUDE, 0, 0,
+                KalmanLocationFilter.MAX_ACCURACY + 1, 0, 0));
+        assertTrue(filter.accept(START_LATITUDE, START_LONGITUDE, 0, 0, 5, 0, 0));
+
+        // half a kilometre in a second and a half
+        double jump = START_LATITUDE + 500 / METRES_PER_DEGREE;
+        assertFalse(filter.accept(jump, START_LONGITUDE, 0, FIX_INTERVAL_MS, 5, 0, 0));
+        assertEquals(START_LATITUDE, filter.getLatitude(), 1e-9);
+
+        // but if every fix after agrees, the estimate was what was wrong
+        long time = FIX_INTERVAL_MS;
+        for (int i = 1; i < KalmanLocationFilter.MAX_REJECTIONS; i++) {
+            time += FIX_INTERVAL_MS;
+            filter.accept(jump, START_LONGITUDE, 0, time, 5, 0, 0);
+        }
+        assertTrue(filter.accept(jump, START_LONGITUDE, 0, time + FIX_INTERVAL_MS, 5, 0, 0));
+        assertEquals(jump, filter.getLatitude(), 1e-9);
+    }
+
+    // REPLAY---------------------------------------------------------------------------------------
+
+    private static class Replay {
+        double mTrueDistance = 0;
+        double mRawDistance = 0;
+        double mFilteredDistance = 0;
+    }
+
+    // Run laps at paceKmh for the given time, adding up the raw and filtered distances just as
+    // RunPipeline does
+    private static Replay replay(double paceKmh, int seconds, long seed) {
+        Random random = new Random(seed);
+        KalmanLocationFilter filter = new KalmanLocationFilter();
+        Replay replay = new Replay();
+        double speed = paceKmh / 3.6;
+        double metresPerDegreeLongitude =
+                METRES_PER_DEGREE * Math.cos(Math.toRadians(START_LATITUDE));
+
+        double[] position = new double[3];
+        double previousX = 0;
+        double previousY = 0;
+        DistanceEngine rawDistance = DistanceEngine.create();
+        DistanceEngine filteredDistance = DistanceEngine.create();
+        int fixes = (int) (seconds * 1000 / FIX_INTERVAL_MS);
+        for (int i = 0; i < fixes; i++) {
+            long time = i * FIX_INTERVAL_MS;
+            lapPosition(speed * time / 1000, position);
+            replay.mTrueDistance += Math.hypot(position[0] - previousX, position[1] - previousY);
+            previousX = position[0];
+            previousY = position[1];
+
+            double x = position[0] + random.nextGaussian() * 4;
+            double y = position[1] + random.nextGaussian() * 4;
+            if (random.nextDouble() < 0.01) {
+                x += 80;
+                y += 60;
+            }
+            double latitude = START_LATITUDE + y / METRES_PER_DEGREE;
+            double longitude = START_LONGITUDE + x / metresPerDegreeLongitude;
+            double altitude = 50 + random.nextGaussian() * 6;
+            float accuracy = (float) (5 + random.nextDouble() * 4);
+            float reportedSpeed = (float) Math.max(0, speed + random.nextGaussian() * 0.3);
+            float bearing = (float) (position[2] + random.nextGaussian() * 5);
+
+            replay.mRawDistance += rawDistance.next(latitude, longitude, altitude);
+            if (filter.accept(latitude, longitude, altitude, time, accuracy, reportedSpeed,
+                    bearing)) {
+                replay.mFilteredDistance += filteredDistance.next(filter.getLatitude(),
+                        filter.getLongitude(), filter.getAltitude());
+            }
+        }
+        return replay;
+    }
+
+    // Where (x and y in metres from the start, and the bearing) someone is after running metres
+    // anticlockwise around the block
+    private static void lapPosition(double metres, double[] position) {
+        double along = metres % 600;
+        if (along < 200) {
+            position[0] = along;
+            position[1] = 0;
+            position[2] = 90;
+        } else if (along < 300) {
+            position[0] = 200;
+            position[1] = along - 200;
+            position[2] = 0;
+        } else if (along < 500) {
+            position[0] = 500 - along;
+            position[1] = 100;
+            position[2] = 270;
+        } else {
+            position[0] = 0;
+            position[1] = 600 - along;
+            position[2] = 180;
+        }
+    }
+
+    private static double pace(double distance) {
+        return (distance / 1000) / (RAINING_FIRE_SECONDS / 3600.0);
+    }
+}
@@ -0,0 +1,104 @@
+package fit3037.dmmic2.dungeonrunner;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/*
+* Checks OutcomeEvaluator gives the same outcomes Dungeon Results used to work out once the run was
+* over (kept below as finishedOutcome), and that what it projects during a run makes sense.
+* */
+
+public class OutcomeEvaluatorTest {
+
+    // time (s), distance (m), pace (km/h) of each kind of level
+    private static final int[][] LEVELS = {
+            {0, 5000, 0},           // distance only
+            {1800, 5000, 10},       // distance within the time, or the pace for the time
+            {1200, 0, 12},          // the pace for the time
+            {0, 0, 0}};             // Dungeon Farm
+    private static final double[] LEVEL_PACES = {0, 10, 12, 0};
+
+    @Test
+    public void matchesFinishedOutcome() throws Exception {
+        for (int l = 0; l < LEVELS.length; l++) {
+            int timeLimit = LEVELS[l][0];
+            int distanceRequired = LEVELS[l][1];
+            double paceRequired = LEVEL_PACES[l];
+            for (int time = 0; time <= 3600; time += 60) {
+                for (int distance = 0; distance <= 8000; distance += 250) {
+                    OutcomeEvaluator evaluator =
+                            new OutcomeEvaluator(timeLimit, distanceRequired, paceRequired);
+                    evaluator.update(time * 1000L + 999, distance);
+                    assertEquals("level " + l + ", " + time + "s, " + distance + "m",
+                            finishedOutcome(timeLimit, distanceRequired, paceRequired, time,
+                                    distance),
+                            evaluator.getOutcome());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void projectsDistanceFinish() throws Exception {
+        OutcomeEvaluator evaluator = new OutcomeEvaluator(0, 5000, 0);
+        assertEquals(OutcomeEvaluator.NO_FINISH, evaluator.getProjectedFinish());
+
+        // 1km in 6 minutes, 5km in 30
+        evaluator.update(360 * 1000, 1000);
+        assertFalse(evaluator.isPassing());
+        assertEquals(1800, evaluator.getProjectedFinish());
+
+        // once passed, it stays at the time it was passed
+        evaluator.update(1790 * 1000, 5000);
+        assertTrue(evaluator.isPassing());
+        evaluator.update(1900 * 1000, 5300);
+        assertEquals(1790, evaluator.getProjectedFinish());
+    }
+
+    @Test
+    public void needsPaceForWhatIsLeft() throws Exception {
+        // 5km in 30 minutes, with 2.5km done in 20 minutes: 2.5km in 10 minutes is 15km/h
+        OutcomeEvaluator evaluator = new OutcomeEvaluator(1800, 5000, 10);
+        evaluator.update(1200 * 1000, 2500);
+        assertEquals(15, evaluator.getPaceNeeded(), 1e-9);
+        // too slow to make the distance in time
+        assertEquals(OutcomeEvaluator.NO_FINISH, evaluator.getProjectedFinish());
+
+        // 12km/h for 20 minutes is 4km, with 1km done in 5 minutes: 3km in 15 minutes is 12km/h
+        evaluator = new OutcomeEvaluator(1200, 0, 12);
+        evaluator.update(300 * 1000, 1000);
+        assertEquals(12, evaluator.getPaceNeeded(), 1e-9);
+        assertEquals(1200, evaluator.getProjectedFinish());
+
+        // nothing more needed once passed
+        evaluator.update(1200 * 1000, 4100);
+        assertTrue(evaluator.isPassing());
+        assertEquals(0, evaluator.getPaceNeeded(), 0);
+    }
+
+    // DungeonResults.determineOutcome, as it was before the evaluator
+    private static int finishedOutcome(int timeLimit, int distanceRequired, double paceRequired,
+            int timeTaken, int distanceCovered) {
+        if (timeTaken == 0) { timeTaken = 1; }
+
+        if ((timeLimit == 0) && (distanceRequired != 0) && (paceRequired == 0)){
+            return ((distanceCovered >= distanceRequired) ? 1 : 0);
+        }
+        else if ((timeLimit != 0) && (distanceRequired != 0) && (paceRequired != 0)){
+            if((distanceCovered >= distanceRequired)&& (timeTaken <= timeLimit)){
+                return 1;
+            }
+            double pace = OutcomeEvaluator.calculatePace(timeTaken, distanceCovered);
+            return (((pace >= paceRequired) && (timeTaken >= timeLimit)) ? 1 : 0);
+        }
+        else if ((timeLimit != 0) && (distanceRequired == 0) && (paceRequired != 0)){
+            double pace = OutcomeEvaluator.calculatePace(timeTaken, distanceCovered);
+            return (((pace >= paceRequired) && (timeTaken >= timeLimit)) ? 1 : 0);
+        }
+        else if ((timeLimit== 0) && (distanceRequired == 0) && (paceRequired == 0)){
+            return 1;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,108 @@
+package fit3037.dmmic2.dungeonrunner;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+
+import static org.junit.Assert.*;
+
+/*
+* Checks that the hot lookups against the equipment and itemDescriptors tables are answered from
+* their indexes rather than by scanning or sorting the whole table.  Runs on the host against an
+* in-memory sqlite database built from the same CREATE statements the app uses, filled with far more
+* equipment than a real inventory would ever hold, one piece of each type equipped and the rest not.
+* */
+
+public class QueryPlanTest {
+
+    private Connection mConnection;
+
+    @Before
+    public void setUp() throws Exception {
+        mConnection = DriverManager.getConnection("jdbc:sqlite::memory:");
+        Statement statement = mConnection.createStatement();
+        statement.execute(Equipment.CREATE_STATEMENT);
+        statement.execute(ItemDescriptor.CREATE_STATEMENT);
+        statement.execute(DungeonRecord.CREATE_STATEMENT);
+        statement.execute(Equipment.CREATE_INDEX_STATEMENT);
+        statement.execute(ItemDescriptor.CREATE_INDEX_STATEMENT);
+        statement.close();
+
+        mConnection.setAutoCommit(false);
+        ArrayList<String> types = Equipment.getEquipmentTypes();
+        PreparedStatement insert = mConnection.prepareStatement(Equipment.INSERT_STATEMENT);
+        for (int i = 0; i < 5000; i++) {
+            insert.setString(1, "Item " + i);
+            insert.setString(2, types.get(i % types.size()));
+            for (int column = 3; column <= 7; column++) {
+                insert.setInt(column, i % 7);
+            }
+            insert.setString(8, "");
+            insert.setInt(9, i < types.size() ? 1 : 0);
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        insert.close();
+        mConnection.commit();
+        mConnection.setAutoCommit(true);
+
+        statement = mConnection.createStatement();
+        statement.execute("ANALYZE");
+        statement.close();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mConnection.close();
+    }
+
+    @Test
+    public void equippedByTypeUsesIndex() throws Exception {
+        assertUsesIndex(DatabaseHelper.QUERY_EQUIPPED_BY_TYPE, Equipment.INDEX_TYPE_EQUIPPED);
+    }
+
+    @Test
+    public void nonEquippedByTypeUsesIndex() throws Exception {
+        assertUsesIndex(DatabaseHelper.QUERY_NON_EQUIPPED_BY_TYPE, Equipment.INDEX_TYPE_EQUIPPED);
+    }
+
+    @Test
+    public void descriptorIndexBuildIsNotSorted() throws Exception {
+        assertUsesIndex(ItemDescriptorIndex.QUERY_ALL_SORTED, ItemDescriptor.INDEX_TYPE_MATCH);
+    }
+
+    @Test
+    public void journalPageIsKeysetLookup() throws Exception {
+        assertUsesIndex(DatabaseHelper.QUERY_DUNGEON_RECORD_SUMMARIES_BEFORE, "PRIMARY KEY");
+    }
+
+    // Every step of the plan is joined into one string, which must mention the index and must not
+    // fall back to building a temporary b-tree to sort or group the results
+    private void assertUsesIndex(String query, String index) throws Exception {
+        String plan = explain(query);
+        assertTrue("expected " + index + " in plan: " + plan, plan.contains(index));
+        assertFalse("unexpected sort in plan: " + plan, plan.contains("TEMP B-TREE"));
+    }
+
+    private String explain(String query) throws Exception {
+        PreparedStatement statement = mConnection.prepareStatement("EXPLAIN QUERY PLAN " + query);
+        if (query.contains("?")) {
+            statement.setString(1, "sharp");
+        }
+        ResultSet result = statement.executeQuery();
+        StringBuilder plan = new StringBuilder();
+        while (result.next()) {
+            plan.append(result.getString("detail")).append("; ");
+        }
+        result.close();
+        statement.close();
+        return plan.toString();
+    }
+}
@@ -0,0 +1,86 @@
+package fit3037.dmmic2.dungeonrunner;
+
+import com.google.android.gms.maps.model.LatLng;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/*
+* Rough timings for the track code on marathon length runs, kept out of the normal test run
+* because wall clock times depend on the machine and whatever else it is doing.  Remove the
+* @Ignore to run it; the numbers are only printed, nothing here can fail.
+* */
+
+@Ignore("benchmark, run by hand")
+public class TrackBenchmark {
+
+    private static final int ROUNDS = 20;
+
+    @Test
+    public void decodeTextAgainstBinary() throws Exception {
+        ArrayList<LatLng> coordinates =
+                TrackCodecTest.randomRun(TrackCodecTest.MARATHON_POINTS, new Random(42));
+        String text = DungeonRecord.convertCoordinatesArrayToString(coordinates);
+        byte[] track = TrackCodec.encode(coordinates, TrackCodecTest.marathonSkips());
+        int textBytes = text.getBytes("UTF-8").length;
+        System.out.println("marathon track: text " + textBytes + " bytes, binary " +
+                track.length + " bytes (" + (100 * track.length / textBytes) + "%)");
+
+        // warm up, then time both decoders over the same number of rounds
+        long checksum = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            checksum += DungeonRecord.convertCoordinatesStringToArrayLatLng(text).size();
+            checksum += TrackCodec.decodeCoordinates(track).size();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            checksum += DungeonRecord.convertCoordinatesStringToArrayLatLng(text).size();
+        }
+        long textNanos = (System.nanoTime() - start) / ROUNDS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            checksum += TrackCodec.decodeCoordinates(track).size();
+        }
+        long binaryNanos = (System.nanoTime() - start) / ROUNDS;
+
+        System.out.println("marathon decode: text " + textNanos / 1000 + " us, binary " +
+                binaryNanos / 1000 + " us (checksum " + checksum + ")");
+    }
+
+    @Test
+    public void distanceModes() throws Exception {
+        double[][] run = DistanceEngineTest.run(DistanceEngineTest.MELBOURNE_LATITUDE,
+                DistanceEngineTest.MELBOURNE_LONGITUDE, 5, new Random(42));
+        int[] modes = DistanceEngineTest.MODES;
+
+        // warm up, then time each mode over the same number of rounds
+        double checksum = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            for (int mode : modes) {
+                checksum += DistanceEngineTest.total(mode, run);
+            }
+        }
+
+        long[] nanos = new long[modes.length];
+        for (int m = 0; m < modes.length; m++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i++) {
+                checksum += DistanceEngineTest.total(modes[m], run);
+            }
+            nanos[m] = (System.nanoTime() - start) / ROUNDS;
+        }
+
+        StringBuilder report = new StringBuilder("marathon of " + run.length + " fixes:");
+        for (int m = 0; m < modes.length; m++) {
+            report.append(" ").append(DistanceEngineTest.MODE_NAMES[m]).append(" ")
+                    .append(nanos[m] / 1000).append(" us (").append(nanos[m] / run.length)
+                    .append(" ns/fix)");
+        }
+        System.out.println(report + " (checksum " + Math.round(checksum) + ")");
+    }
+}
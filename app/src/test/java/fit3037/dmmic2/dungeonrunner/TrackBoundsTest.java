@@ -0,0 +1,58 @@
+package fit3037.dmmic2.dungeonrunner;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/*
+* Checks the TrackBounds a TrackBuffer keeps as points are appended, and that a track loaded back
+* from the database gets the same ones.
+* */
+
+public class TrackBoundsTest {
+
+    private static final double TOLERANCE = 1e-7;
+
+    @Test
+    public void keptUpToDateAsPointsAreAppended() throws Exception {
+        TrackBuffer track = new TrackBuffer();
+        assertNull(track.getBounds());
+
+        track.append(-37.9, 145.1, 0, 0);
+        TrackBounds bounds = track.getBounds();
+        assertEquals(-37.9, bounds.getSouth(), 0);
+        assertEquals(-37.9, bounds.getNorth(), 0);
+        assertEquals(145.1, bounds.getEndLongitude(), 0);
+
+        track.append(-37.7, 145.0, 0, 0);
+        track.addSkip(1);
+        track.append(-37.8, 145.3, 0, 0);
+        bounds = track.getBounds();
+        assertEquals(-37.9, bounds.getSouth(), 0);
+        assertEquals(145.0, bounds.getWest(), 0);
+        assertEquals(-37.7, bounds.getNorth(), 0);
+        assertEquals(145.3, bounds.getEast(), 0);
+        assertEquals(-37.9, bounds.getStartLatitude(), 0);
+        assertEquals(145.1, bounds.getStartLongitude(), 0);
+        assertEquals(-37.8, bounds.getEndLatitude(), 0);
+        assertEquals(145.3, bounds.getEndLongitude(), 0);
+        assertEquals(-37.8, bounds.getCentroidLatitude(), TOLERANCE);
+        assertEquals((145.1 + 145.0 + 145.3) / 3, bounds.getCentroidLongitude(), TOLERANCE);
+    }
+
+    @Test
+    public void sameAfterRoundTrip() throws Exception {
+        TrackBuffer track = new TrackBuffer();
+        for (int i = 0; i < 1000; i++) {
+            track.append(-37.78 + Math.sin(i * 0.01) * 0.02, 145.11 + i * 1e-5, 0, 0);
+        }
+        TrackBounds recorded = track.getBounds();
+        TrackBounds decoded = TrackBuffer.decode(TrackCodec.encode(track)).getBounds();
+        assertEquals(recorded.getSouth(), decoded.getSouth(), TOLERANCE);
+        assertEquals(recorded.getWest(), decoded.getWest(), TOLERANCE);
+        assertEquals(recorded.getNorth(), decoded.getNorth(), TOLERANCE);
+        assertEquals(recorded.getEast(), decoded.getEast(), TOLERANCE);
+        assertEquals(recorded.getCentroidLatitude(), decoded.getCentroidLatitude(), TOLERANCE);
+        assertEquals(recorded.getCentroidLongitude(), decoded.getCentroidLongitude(), TOLERANCE);
+    }
+}
@@ -0,0 +1,156 @@
+package fit3037.dmmic2.dungeonrunner;
+
+import com.google.android.gms.maps.model.LatLng;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/*
+* Round trip checks for TrackCodec, and that the binary format is much smaller than the comma
+* separated text it replaced on a marathon length run (four hours of fixes once a second).  How much
+* faster it decodes is measured in TrackBenchmark.
+* */
+
+public class TrackCodecTest {
+
+    // Half a centimetre, the most rounding to 1e-7 degrees can move a point
+    private static final double TOLERANCE = 0.5e-7 + 1e-12;
+
+    static final int MARATHON_POINTS = 4 * 60 * 60;
+
+    @Test
+    public void roundTripsCoordinatesAndSkips() throws Exception {
+        ArrayList<LatLng> coordinates = randomRun(500, new Random(1));
+        ArrayList<Integer> skips = new ArrayList<Integer>();
+        skips.add(3);
+        skips.add(120);
+        skips.add(121);
+        skips.add(499);
+
+        byte[] track = TrackCodec.encode(coordinates, skips);
+
+        ArrayList<LatLng> decoded = TrackCodec.decodeCoordinates(track);
+        assertEquals(coordinates.size(), decoded.size());
+        for (int i = 0; i < coordinates.size(); i++) {
+            assertEquals(coordinates.get(i).latitude, decoded.get(i).latitude, TOLERANCE);
+            assertEquals(coordinates.get(i).longitude, decoded.get(i).longitude, TOLERANCE);
+        }
+        assertEquals(skips, TrackCodec.decodeSkips(track));
+    }
+
+    @Test
+    public void readerFindsSkipsFirstAndReadsInChunks() throws Exception {
+        ArrayList<LatLng> coordinates = randomRun(1000, new Random(2));
+        ArrayList<Integer> skips = new ArrayList<Integer>();
+        skips.add(10);
+        skips.add(700);
+        byte[] track = TrackCodec.encode(coordinates, skips);
+
+        TrackCodec.Reader reader = new TrackCodec.Reader(track);
+        assertEquals(1000, reader.size());
+        assertEquals(2, reader.getSkipCount());
+        assertEquals(10, reader.getSkip(0));
+        assertEquals(700, reader.getSkip(1));
+
+        final ArrayList<LatLng> decoded = new ArrayList<LatLng>();
+        TrackCodec.TrackVisitor visitor = new TrackCodec.TrackVisitor() {
+            @Override
+            public void onPoint(double latitude, double longitude) {
+                decoded.add(new LatLng(latitude, longitude));
+            }
+            @Override
+            public void onSkip(int index) {
+                fail("the reader only hands over points");
+            }
+        };
+        assertEquals(256, reader.read(256, visitor));
+        assertEquals(512, reader.read(512, visitor));
+        assertTrue(reader.hasMore());
+        assertEquals(232, reader.read(1024, visitor));
+        assertFalse(reader.hasMore());
+        assertEquals(0, reader.read(1024, visitor));
+
+        assertEquals(coordinates.size(), decoded.size());
+        for (int i = 0; i < coordinates.size(); i++) {
+            assertEquals(coordinates.get(i).latitude, decoded.get(i).latitude, TOLERANCE);
+            assertEquals(coordinates.get(i).longitude, decoded.get(i).longitude, TOLERANCE);
+        }
+    }
+
+    @Test
+    public void roundTripsEmptyTrack() throws Exception {
+        byte[] track = TrackCodec.encode(new ArrayList<LatLng>(), new ArrayList<Integer>());
+        assertEquals(0, TrackCodec.decodeCoordinates(track).size());
+        assertEquals(0, TrackCodec.decodeSkips(track).size());
+    }
+
+    @Test
+    public void handlesLargeJumpsAndExtremes() throws Exception {
+        ArrayList<LatLng> coordinates = new ArrayList<LatLng>();
+        coordinates.add(new LatLng(-90, -180));
+        coordinates.add(new LatLng(90, 180));
+        coordinates.add(new LatLng(-37.8136, 144.9631));
+        coordinates.add(new LatLng(0, -179.9999999));
+
+        ArrayList<LatLng> decoded = TrackCodec.decodeCoordinates(
+                TrackCodec.encode(coordinates, new ArrayList<Integer>()));
+        for (int i = 0; i < coordinates.size(); i++) {
+            assertEquals(coordinates.get(i).latitude, decoded.get(i).latitude, TOLERANCE);
+            assertEquals(coordinates.get(i).longitude, decoded.get(i).longitude, TOLERANCE);
+        }
+    }
+
+    @Test
+    public void readsLegacyText() throws Exception {
+        byte[] track = DungeonRecord.convertLegacyTextToTrack(
+                "-37.78098475,145.11339419,-37.78093189,145.1133283", "1");
+        ArrayList<LatLng> decoded = TrackCodec.decodeCoordinates(track);
+        assertEquals(2, decoded.size());
+        assertEquals(-37.78093189, decoded.get(1).latitude, TOLERANCE);
+        assertEquals(145.1133283, decoded.get(1).longitude, TOLERANCE);
+        assertEquals(1, (int) TrackCodec.decodeSkips(track).get(0));
+
+        // runs without any pauses were stored with empty skips
+        assertEquals(0, TrackCodec.decodeSkips(
+                DungeonRecord.convertLegacyTextToTrack("", "")).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnknownVersion() throws Exception {
+        TrackCodec.decodeCoordinates(new byte[]{(byte) (TrackCodec.FORMAT_VERSION + 1), 0, 0});
+    }
+
+    @Test
+    public void binaryIsMuchSmallerThanText() throws Exception {
+        ArrayList<LatLng> coordinates = randomRun(MARATHON_POINTS, new Random(42));
+        byte[] track = TrackCodec.encode(coordinates, marathonSkips());
+        String text = DungeonRecord.convertCoordinatesArrayToString(coordinates);
+        assertTrue(track.length * 4 < text.getBytes("UTF-8").length);
+    }
+
+    // A pause every quarter of an hour, starting ten minutes in
+    static ArrayList<Integer> marathonSkips() {
+        ArrayList<Integer> skips = new ArrayList<Integer>();
+        for (int i = 600; i < MARATHON_POINTS; i += 900) {
+            skips.add(i);
+        }
+        return skips;
+    }
+
+    // A random walk of GPS fixes a few metres apart, starting in Melbourne
+    static ArrayList<LatLng> randomRun(int points, Random random) {
+        ArrayList<LatLng> coordinates = new ArrayList<LatLng>(points);
+        double lat = -37.78098475;
+        double lon = 145.11339419;
+        for (int i = 0; i < points; i++) {
+            lat += (random.nextDouble() - 0.5) * 6e-5;
+            lon += (random.nextDouble() - 0.5) * 6e-5;
+            coordinates.add(new LatLng(lat, lon));
+        }
+        return coordinates;
+    }
+}
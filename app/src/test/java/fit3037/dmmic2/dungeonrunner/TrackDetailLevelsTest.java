@@ -0,0 +1,132 @@
+package fit3037.dmmic2.dungeonrunner;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/*
+* Checks TrackSimplifier stays within its tolerance and keeps the pauses where they were, and that
+* TrackDetailLevels round trips and picks sensible levels for the zoom.
+* */
+
+public class TrackDetailLevelsTest {
+
+    private static final double START_LATITUDE = -37.78098475;
+    private static final double START_LONGITUDE = 145.11339419;
+    private static final double METRES_PER_DEGREE = 111320;
+
+    // four hours of fixes every 1.5s at 11km/h
+    private static final int MARATHON_POINTS = 4 * 60 * 40;
+    private static final double MARATHON_SPACING = 4.6;
+
+    @Test
+    public void straightLineIsTwoPoints() throws Exception {
+        TrackBuffer track = new TrackBuffer();
+        for (int i = 0; i < 100; i++) {
+            track.append(START_LATITUDE + i * 1e-5, START_LONGITUDE, 0, 0);
+        }
+        TrackBuffer simplified = TrackSimplifier.simplify(track, 1);
+        assertEquals(2, simplified.size());
+        assertEquals(track.getLatitude(99), simplified.getLatitude(1), 0);
+    }
+
+    @Test
+    public void staysWithinToleranceAndKeepsPauses() throws Exception {
+        TrackBuffer track = run(MARATHON_POINTS, new Random(3));
+        for (int i = 500; i < MARATHON_POINTS; i += 1700) {
+            track.addSkip(i);
+        }
+
+        for (int tolerance : TrackDetailLevels.TOLERANCES) {
+            TrackBuffer simplified = TrackSimplifier.simplify(track, tolerance);
+            assertEquals(track.getSkipCount(), simplified.getSkipCount());
+
+            // walk both tracks together: every original point must be within the tolerance of the
+            // simplified line it falls under, and every pause must land on the same point
+            int next = 0;
+            int skip = 0;
+            for (int i = 0; i < track.size(); i++) {
+                boolean kept = next < simplified.size()
+                        && track.getLatitude(i) == simplified.getLatitude(next)
+                        && track.getLongitude(i) == simplified.getLongitude(next);
+                if (kept) {
+                    next += 1;
+                } else {
+                    assertTrue(distanceToLine(track, i, simplified, next - 1, next)
+                            <= tolerance + 1e-6);
+                }
+                if (skip < track.getSkipCount() && track.getSkip(skip) == i) {
+                    assertTrue(kept);
+                    assertEquals(next - 1, simplified.getSkip(skip));
+                    skip += 1;
+                }
+            }
+            assertEquals(simplified.size(), next);
+        }
+    }
+
+    @Test
+    public void roundTripsAndCutsMarathonDown() throws Exception {
+        TrackBuffer track = run(MARATHON_POINTS, new Random(42));
+        byte[] encoded = TrackDetailLevels.encode(track);
+        TrackDetailLevels levels = TrackDetailLevels.decode(encoded, track);
+        TrackDetailLevels built = TrackDetailLevels.build(track);
+
+        assertEquals(TrackDetailLevels.TOLERANCES.length + 1, levels.size());
+        assertSame(track, levels.getLevel(levels.size() - 1));
+        for (int i = 0; i < levels.size() - 1; i++) {
+            assertEquals(TrackDetailLevels.TOLERANCES[i], levels.getTolerance(i));
+            assertEquals(built.getLevel(i).size(), levels.getLevel(i).size());
+            // coarser levels have fewer points
+            assertTrue(levels.getLevel(i).size() < levels.getLevel(i + 1).size());
+        }
+        assertTrue(levels.getLevel(0).size() * 20 < track.size());
+    }
+
+    @Test
+    public void picksCoarserLevelsFurtherOut() throws Exception {
+        TrackDetailLevels levels = TrackDetailLevels.build(run(1000, new Random(1)));
+        // a whole city on screen, a few streets, and a single street
+        assertEquals(0, levels.levelForZoom(11, START_LATITUDE));
+        assertEquals(levels.size() - 1, levels.levelForZoom(17, START_LATITUDE));
+        int previous = 0;
+        for (float zoom = 5; zoom <= 21; zoom += 0.5f) {
+            int level = levels.levelForZoom(zoom, START_LATITUDE);
+            assertTrue(level >= previous);
+            previous = level;
+        }
+    }
+
+    // A run wandering about from the start, MARATHON_SPACING metres between fixes
+    private static TrackBuffer run(int points, Random random) {
+        TrackBuffer track = new TrackBuffer(points);
+        double latitude = START_LATITUDE;
+        double longitude = START_LONGITUDE;
+        double bearing = 0;
+        double metresPerDegreeLongitude =
+                METRES_PER_DEGREE * Math.cos(Math.toRadians(START_LATITUDE));
+        for (int i = 0; i < points; i++) {
+            track.append(latitude, longitude, 0, 0);
+            bearing += random.nextGaussian() * 0.15;
+            latitude += Math.cos(bearing) * MARATHON_SPACING / METRES_PER_DEGREE;
+            longitude += Math.sin(bearing) * MARATHON_SPACING / metresPerDegreeLongitude;
+        }
+        return track;
+    }
+
+    // Metres from point i of track to the line between points from and to of simplified
+    private static double distanceToLine(Track track, int i, Track simplified, int from, int to) {
+        double cos = Math.cos(Math.toRadians(simplified.getLatitude(from)));
+        double lineX = (simplified.getLongitude(to) - simplified.getLongitude(from)) * cos
+                * METRES_PER_DEGREE;
+        double lineY = (simplified.getLatitude(to) - simplified.getLatitude(from))
+                * METRES_PER_DEGREE;
+        double x = (track.getLongitude(i) - simplified.getLongitude(from)) * cos
+                * METRES_PER_DEGREE;
+        double y = (track.getLatitude(i) - simplified.getLatitude(from)) * METRES_PER_DEGREE;
+        return Math.sqrt(TrackSimplifier.distanceToLineSquared(x, y, lineX, lineY,
+                lineX * lineX + lineY * lineY));
+    }
+}
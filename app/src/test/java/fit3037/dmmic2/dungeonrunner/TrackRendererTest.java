@@ -0,0 +1,66 @@
+package fit3037.dmmic2.dungeonrunner;
+
+import com.google.android.gms.maps.model.PolylineOptions;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.*;
+
+/*
+* Checks TrackRenderer splits a track into one line per stretch between pauses, with the same
+* points the map used to join pair by pair.
+* */
+
+public class TrackRendererTest {
+
+    @Test
+    public void oneLinePerStretchBetweenPauses() throws Exception {
+        // paused after points 3 and 6
+        TrackBuffer track = track(10, 3, 6);
+        ArrayList<PolylineOptions> lines = TrackRenderer.build(track);
+        assertEquals(3, lines.size());
+        assertPoints(lines.get(0), 0, 3);
+        assertPoints(lines.get(1), 4, 6);
+        assertPoints(lines.get(2), 7, 9);
+    }
+
+    @Test
+    public void unpausedRunIsOneLine() throws Exception {
+        ArrayList<PolylineOptions> lines = TrackRenderer.build(track(500));
+        assertEquals(1, lines.size());
+        assertPoints(lines.get(0), 0, 499);
+    }
+
+    @Test
+    public void leavesOutStretchesWithNothingToDraw() throws Exception {
+        // a single point between two pauses, and a pause on the last point
+        ArrayList<PolylineOptions> lines = TrackRenderer.build(track(6, 2, 3, 5));
+        assertEquals(2, lines.size());
+        assertPoints(lines.get(0), 0, 2);
+        assertPoints(lines.get(1), 4, 5);
+        // a point on its own draws nothing either
+        assertEquals(0, TrackRenderer.build(track(1)).size());
+        assertEquals(0, TrackRenderer.build(track(0)).size());
+    }
+
+    // A track of points along the equator, one step of longitude apart, paused after each skip
+    private static TrackBuffer track(int points, int... skips) {
+        TrackBuffer track = new TrackBuffer();
+        for (int i = 0; i < points; i++) {
+            track.append(0, i, 0, 0);
+        }
+        for (int skip : skips) {
+            track.addSkip(skip);
+        }
+        return track;
+    }
+
+    private static void assertPoints(PolylineOptions line, int first, int last) {
+        assertEquals(last - first + 1, line.getPoints().size());
+        for (int i = first; i <= last; i++) {
+            assertEquals(i, line.getPoints().get(i - first).longitude, 0);
+        }
+    }
+}
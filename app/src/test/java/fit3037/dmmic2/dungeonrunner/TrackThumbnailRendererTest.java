@@ -0,0 +1,70 @@
+package fit3037.dmmic2.dungeonrunner;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/*
+* Checks TrackThumbnailRenderer fits a route into its square: inside the margin, the right way up,
+* keeping its shape, and centred.
+* */
+
+public class TrackThumbnailRendererTest {
+
+    private static final double START_LATITUDE = -37.78098475;
+    private static final double START_LONGITUDE = 145.11339419;
+    private static final double METRES_PER_DEGREE = 111320;
+    private static final int SIZE = 192;
+    private static final float MARGIN = 6;
+    private static final float EPSILON = 0.01f;
+
+    @Test
+    public void fillsSquareKeepingShape() throws Exception {
+        // 2km east then 1km north
+        double cos = Math.cos(Math.toRadians(START_LATITUDE + 0.5 / METRES_PER_DEGREE * 1000));
+        TrackBuffer track = new TrackBuffer();
+        track.append(START_LATITUDE, START_LONGITUDE, 0, 0);
+        track.append(START_LATITUDE, START_LONGITUDE + 2000 / (METRES_PER_DEGREE * cos), 0, 0);
+        track.append(START_LATITUDE + 1000 / METRES_PER_DEGREE,
+                START_LONGITUDE + 2000 / (METRES_PER_DEGREE * cos), 0, 0);
+
+        TrackThumbnailRenderer.Frame frame = TrackThumbnailRenderer.Frame.fit(track, SIZE, MARGIN);
+        float room = SIZE - 2 * MARGIN;
+        // the long side fills the square less the margins
+        assertEquals(MARGIN, frame.x(track.getLongitude(0)), EPSILON);
+        assertEquals(SIZE - MARGIN, frame.x(track.getLongitude(1)), EPSILON);
+        // the short side is half as long and centred, with north up
+        assertEquals(SIZE / 2 + room / 4, frame.y(track.getLatitude(0)), 0.1);
+        assertEquals(SIZE / 2 - room / 4, frame.y(track.getLatitude(2)), 0.1);
+        assertEquals(2000 / room, frame.getMetresPerPixel(), 0.1);
+    }
+
+    @Test
+    public void staysInsideMargin() throws Exception {
+        TrackBuffer track = new TrackBuffer();
+        for (int i = 0; i < 500; i++) {
+            double angle = i * 0.05;
+            track.append(START_LATITUDE + Math.sin(angle) * i * 1e-6,
+                    START_LONGITUDE + Math.cos(angle * 1.3) * i * 2e-6, 0, 0);
+        }
+        TrackThumbnailRenderer.Frame frame = TrackThumbnailRenderer.Frame.fit(track, SIZE, MARGIN);
+        for (int i = 0; i < track.size(); i++) {
+            float x = frame.x(track.getLongitude(i));
+            float y = frame.y(track.getLatitude(i));
+            assertTrue(x >= MARGIN - EPSILON && x <= SIZE - MARGIN + EPSILON);
+            assertTrue(y >= MARGIN - EPSILON && y <= SIZE - MARGIN + EPSILON);
+        }
+    }
+
+    @Test
+    public void singlePointIsCentred() throws Exception {
+        TrackBuffer track = new TrackBuffer();
+        track.append(START_LATITUDE, START_LONGITUDE, 0, 0);
+        track.append(START_LATITUDE, START_LONGITUDE, 0, 0);
+        TrackThumbnailRenderer.Frame frame = TrackThumbnailRenderer.Frame.fit(track, SIZE, MARGIN);
+        assertEquals(SIZE / 2f, frame.x(START_LONGITUDE), EPSILON);
+        assertEquals(SIZE / 2f, frame.y(START_LATITUDE), EPSILON);
+
+        assertNull(TrackThumbnailRenderer.Frame.fit(new TrackBuffer(), SIZE, MARGIN));
+    }
+}